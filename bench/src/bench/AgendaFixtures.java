@@ -0,0 +1,137 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import database.AgendaRepository;
+import database.DatabaseConfig;
+import database.DatabaseHelper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import model.Agenda;
+
+/**
+ * Data agenda deterministik untuk benchmark
+ * Database yang sudah diisi disimpan sebagai template di build/bench/data,
+ * sehingga setiap trial cukup menyalin file, bukan mengisi ulang jutaan baris
+ * @author slozoy
+ */
+public final class AgendaFixtures {
+
+    // ========== CONSTANTS ==========
+    public static final String[] PRIORITAS = {"Rendah", "Sedang", "Tinggi", "Urgent"};
+    public static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    public static final int DAYS = 5 * 365;
+
+    private static final String[] WORDS = {
+        "Rapat", "Kuliah", "Tugas", "Ujian", "Presentasi", "Olahraga", "Belanja", "Dokter",
+        "Proyek", "Laporan", "Seminar", "Praktikum", "Arisan", "Servis", "Tagihan", "Keluarga",
+        "Review", "Deadline", "Konsultasi", "Workshop", "Bimbingan", "Perjalanan", "Latihan", "Kantor"
+    };
+    private static final int BATCH_SIZE = 10_000;
+    private static final Path DATA_DIR = Paths.get(System.getProperty("bench.data.dir", "build/bench/data"));
+
+    private AgendaFixtures() {
+    }
+
+    // ========== GENERATION ==========
+
+    /**
+     * Buat satu agenda acak (tanpa ID)
+     * @param random Sumber acak (seed tetap agar hasil bisa direproduksi)
+     * @return Agenda baru
+     */
+    public static Agenda randomAgenda(SplittableRandom random) {
+        String judul = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + random.nextInt(1000);
+        String deskripsi = "Catatan " + WORDS[random.nextInt(WORDS.length)].toLowerCase()
+                + " untuk " + WORDS[random.nextInt(WORDS.length)].toLowerCase();
+        LocalDateTime tanggalWaktu = START.plusDays(random.nextInt(DAYS))
+                .withHour(random.nextInt(7, 22)).withMinute(random.nextInt(4) * 15);
+        return new Agenda(judul, deskripsi, tanggalWaktu, PRIORITAS[random.nextInt(PRIORITAS.length)]);
+    }
+
+    /**
+     * Tanggal acak di rentang data fixture
+     * @param random Sumber acak
+     * @return Tanggal
+     */
+    public static LocalDateTime randomDate(SplittableRandom random) {
+        return START.plusDays(random.nextInt(DAYS));
+    }
+
+    // ========== DATABASE ==========
+
+    /**
+     * Salin database template berisi sejumlah baris ke file sementara
+     * Template dibuat sekali (seed 42) jika belum ada
+     * @param rows Jumlah baris
+     * @return Path file database sementara (hapus setelah selesai)
+     * @throws IOException jika gagal membuat/menyalin file
+     */
+    public static Path seededCopy(int rows) throws IOException {
+        Path template = DATA_DIR.resolve("agenda-" + rows + ".db");
+        synchronized (AgendaFixtures.class) {
+            if (!Files.exists(template)) {
+                Files.createDirectories(DATA_DIR);
+                Path partial = DATA_DIR.resolve("agenda-" + rows + ".db.partial");
+                Files.deleteIfExists(partial);
+                seed(partial, rows, 42);
+                Files.move(partial, template, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path copy = Files.createTempFile("agenda-bench-" + rows + "-", ".db");
+        Files.copy(template, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    /**
+     * Isi database baru dengan agenda acak lewat insertAgendaBatch (profil bulk-load)
+     * @param file File database
+     * @param rows Jumlah baris
+     * @param seed Seed acak
+     */
+    public static void seed(Path file, int rows, long seed) {
+        DatabaseHelper helper = DatabaseHelper.forConfig(DatabaseConfig.load()
+                .withPath(file.toAbsolutePath().toString()).withProfile("bulk-load"));
+        try {
+            seed(helper, rows, seed);
+        } finally {
+            helper.closeConnection();
+        }
+    }
+
+    /**
+     * Isi repository (engine apa pun) dengan agenda acak yang sama seperti template database
+     * @param repository Repository kosong
+     * @param rows Jumlah baris
+     * @param seed Seed acak
+     */
+    public static void seed(AgendaRepository repository, int rows, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Agenda> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(randomAgenda(random));
+            if (batch.size() == BATCH_SIZE || i == rows - 1) {
+                repository.insertAgendaBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * @param file File database
+     * @return JDBC URL SQLite untuk file tersebut
+     */
+    public static String jdbcUrl(Path file) {
+        return "jdbc:sqlite:" + file.toAbsolutePath();
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import database.DatabaseConfig;
+import database.DatabaseHelper;
+import database.QueryMetrics;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+import model.Agenda;
+
+/**
+ * Generator data agenda sintetis dan tool replay beban kerja
+ *
+ * generate: isi database dengan agenda realistis lewat insertAgendaBatch
+ *   tanggal condong ke sekitar hari ini (lebih banyak masa lalu, sedikit akhir pekan),
+ *   jam kerja lebih padat, distribusi prioritas tidak rata, panjang judul/deskripsi bervariasi,
+ *   kata populer lebih sering muncul (Zipf). Seed sama = data sama
+ *
+ * replay: jalankan campuran search/insert/update/delete/date pada target ops/detik.
+ *   Jadwal open-loop: latensi dihitung dari waktu yang dijadwalkan, sehingga antrean
+ *   akibat operasi lambat ikut terukur
+ *
+ * Contoh:
+ *   ant agenda-generator -Dgenerator.args="generate --db agenda.db --rows 2000000 --seed 42"
+ *   ant agenda-generator -Dgenerator.args="replay --db agenda.db --rate 200 --duration 60
+ *       --mix search=60,insert=20,update=10,delete=5,date=5 --out replay.txt"
+ * @author slozoy
+ */
+public class AgendaGenerator {
+
+    // ========== CONSTANTS ==========
+    private static final String[] WORDS = {
+        "Rapat", "Tugas", "Kuliah", "Laporan", "Deadline", "Meeting", "Olahraga", "Belanja",
+        "Proyek", "Ujian", "Presentasi", "Dokter", "Keluarga", "Review", "Seminar", "Praktikum",
+        "Konsultasi", "Bimbingan", "Workshop", "Arisan", "Servis", "Tagihan", "Perjalanan", "Latihan",
+        "Kantor", "Klien", "Anggaran", "Evaluasi", "Wawancara", "Pelatihan", "Ulang", "Tahun",
+        "Pernikahan", "Webinar", "Sprint", "Retrospektif", "Demo", "Audit", "Pajak", "Asuransi"
+    };
+    private static final String[] PRIORITAS = {"Rendah", "Sedang", "Tinggi", "Urgent"};
+    private static final double[] PRIORITAS_WEIGHTS = {0.35, 0.40, 0.20, 0.05};
+
+    // ========== ATTRIBUTES ==========
+    private final SplittableRandom random;
+    private final double[] zipfCumulative;
+    private final LocalDate today;
+
+    /**
+     * Constructor
+     * @param seed Seed acak (hasil sama untuk seed sama)
+     * @param today Titik pusat distribusi tanggal
+     */
+    public AgendaGenerator(long seed, LocalDate today) {
+        this.random = new SplittableRandom(seed);
+        this.today = today;
+        this.zipfCumulative = zipf(WORDS.length, 1.1);
+    }
+
+    // ========== GENERATION ==========
+
+    /**
+     * Buat satu agenda sintetis (tanpa ID)
+     * @return Agenda baru
+     */
+    public Agenda nextAgenda() {
+        return new Agenda(nextJudul(), nextDeskripsi(), nextTanggalWaktu(), nextPrioritas());
+    }
+
+    private String nextJudul() {
+        int words = 1 + (int) Math.round((random.nextDouble() + random.nextDouble()) * 1.5); // 1-4 kata
+        StringBuilder judul = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                judul.append(' ');
+            }
+            judul.append(nextWord());
+        }
+        if (random.nextInt(4) == 0) {
+            judul.append(' ').append(random.nextInt(1, 100)); // Misalnya "Rapat Proyek 12"
+        }
+        return judul.toString();
+    }
+
+    private String nextDeskripsi() {
+        if (random.nextInt(5) == 0) {
+            return ""; // Sekitar 20% agenda tanpa deskripsi
+        }
+        // Log-normal: median ~8 kata, ekor panjang sampai ~100 kata
+        int words = (int) Math.min(100, Math.max(1, Math.round(Math.exp(2.1 + 0.8 * gaussian()))));
+        StringBuilder deskripsi = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                deskripsi.append(' ');
+            }
+            deskripsi.append(nextWord().toLowerCase());
+        }
+        return deskripsi.toString();
+    }
+
+    private LocalDateTime nextTanggalWaktu() {
+        // 70% masa lalu (rata-rata 120 hari), 30% masa depan (rata-rata 30 hari)
+        boolean past = random.nextDouble() < 0.7;
+        long offset = Math.round(-Math.log(1 - random.nextDouble()) * (past ? 120 : 30));
+        LocalDate date = past ? today.minusDays(offset) : today.plusDays(offset);
+        if ((date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY)
+                && random.nextInt(3) != 0) {
+            date = date.plusDays(date.getDayOfWeek() == DayOfWeek.SATURDAY ? 2 : 1);
+        }
+        // Jam kerja lebih padat: normal di sekitar 12:00, dibatasi 06:00-22:00
+        int hour = (int) Math.max(6, Math.min(22, Math.round(12 + 3.5 * gaussian())));
+        int minute = random.nextInt(4) * 15;
+        return date.atTime(hour, minute);
+    }
+
+    private String nextPrioritas() {
+        double r = random.nextDouble();
+        double cumulative = 0;
+        for (int i = 0; i < PRIORITAS.length; i++) {
+            cumulative += PRIORITAS_WEIGHTS[i];
+            if (r < cumulative) {
+                return PRIORITAS[i];
+            }
+        }
+        return PRIORITAS[PRIORITAS.length - 1];
+    }
+
+    /**
+     * Kata dengan distribusi Zipf (kata di awal WORDS paling sering)
+     */
+    private String nextWord() {
+        double r = random.nextDouble();
+        int low = 0;
+        int high = zipfCumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (zipfCumulative[mid] < r) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return WORDS[low];
+    }
+
+    private double gaussian() {
+        // Box-Muller
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    // ========== GENERATE MODE ==========
+
+    private static void generate(Map<String, String> options) {
+        String db = options.getOrDefault("db", "agenda.db");
+        long rows = Long.parseLong(options.getOrDefault("rows", "1000000"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch", "10000"));
+        AgendaGenerator generator = new AgendaGenerator(
+                Long.parseLong(options.getOrDefault("seed", "42")), today(options));
+
+        DatabaseHelper helper = DatabaseHelper.forConfig(DatabaseConfig.load().withPath(db)
+                .withProfile(options.getOrDefault("profile", "bulk-load")));
+        long start = System.nanoTime();
+        try {
+            List<Agenda> batch = new ArrayList<>(batchSize);
+            for (long i = 1; i <= rows; i++) {
+                batch.add(generator.nextAgenda());
+                if (batch.size() == batchSize || i == rows) {
+                    helper.insertAgendaBatch(batch);
+                    batch.clear();
+                }
+                if (i % 100_000 == 0) {
+                    System.out.println("  " + i + " / " + rows + " rows");
+                }
+            }
+        } finally {
+            helper.closeConnection();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Generated " + rows + " agenda(s) into " + db + " in " + millis + " ms ("
+                + (rows * 1000 / Math.max(1, millis)) + " rows/s)");
+    }
+
+    // ========== REPLAY MODE ==========
+
+    private static void replay(Map<String, String> options) throws IOException {
+        String db = options.getOrDefault("db", "agenda.db");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        Map<String, Integer> mix = parseMix(options.getOrDefault("mix",
+                "search=60,insert=20,update=10,delete=5,date=5"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "7"));
+
+        AgendaGenerator generator = new AgendaGenerator(seed, today(options));
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        QueryMetrics latencies = new QueryMetrics();
+        DatabaseHelper helper = DatabaseHelper.forUrl("jdbc:sqlite:" + db);
+
+        try {
+            long[] idRange = idRange(helper);
+            List<String> operations = new ArrayList<>(mix.keySet());
+            int[] cumulative = new int[operations.size()];
+            int total = 0;
+            for (int i = 0; i < operations.size(); i++) {
+                total += mix.get(operations.get(i));
+                cumulative[i] = total;
+            }
+
+            long intervalNanos = (long) (1_000_000_000L / rate);
+            long start = System.nanoTime();
+            long end = start + durationSeconds * 1_000_000_000L;
+            long scheduled = start;
+            long executed = 0;
+
+            while (scheduled < end) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                int pick = random.nextInt(total);
+                int index = 0;
+                while (cumulative[index] <= pick) {
+                    index++;
+                }
+                String operation = operations.get(index);
+
+                long rows;
+                boolean success = true;
+                try {
+                    rows = execute(operation, helper, generator, random, idRange);
+                } catch (RuntimeException e) {
+                    rows = 0;
+                    success = false;
+                }
+                // Latensi dari waktu yang dijadwalkan (hindari coordinated omission)
+                latencies.record(operation, System.nanoTime() - scheduled, rows, success);
+
+                executed++;
+                scheduled += intervalNanos;
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            StringBuilder report = new StringBuilder();
+            report.append("Replay ").append(db).append(": ").append(executed).append(" ops in ")
+                  .append(String.format("%.1f", seconds)).append(" s (target ").append(rate)
+                  .append(" ops/s, achieved ").append(String.format("%.1f", executed / seconds))
+                  .append(" ops/s)").append(System.lineSeparator())
+                  .append("-- Latency per operation (from scheduled start) --").append(System.lineSeparator())
+                  .append(latencies.getReport())
+                  .append("-- DatabaseHelper metrics --").append(System.lineSeparator())
+                  .append(helper.getMetrics().getReport());
+            System.out.print(report);
+            if (options.containsKey("out")) {
+                Files.writeString(Paths.get(options.get("out")), report, StandardCharsets.UTF_8);
+            }
+        } finally {
+            helper.closeConnection();
+        }
+    }
+
+    private static long execute(String operation, DatabaseHelper helper, AgendaGenerator generator,
+                                SplittableRandom random, long[] idRange) {
+        switch (operation) {
+            case "search":
+                String prioritas = random.nextInt(4) == 0
+                        ? PRIORITAS[random.nextInt(PRIORITAS.length)] : null;
+                return helper.searchAgenda(generator.nextWord().toLowerCase(), prioritas).size();
+            case "insert":
+                Agenda agenda = generator.nextAgenda();
+                if (helper.insertAgenda(agenda)) {
+                    idRange[1] = Math.max(idRange[1], agenda.getId());
+                    return 1;
+                }
+                return 0;
+            case "update":
+                Agenda updated = generator.nextAgenda();
+                updated.setId((int) randomId(random, idRange));
+                return helper.updateAgenda(updated) ? 1 : 0;
+            case "delete":
+                return helper.deleteAgenda((int) randomId(random, idRange)) ? 1 : 0;
+            case "date":
+                return helper.getAgendaByDate(generator.nextTanggalWaktu()).size();
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private static long randomId(SplittableRandom random, long[] idRange) {
+        return idRange[1] < idRange[0] ? 1 : random.nextLong(idRange[0], idRange[1] + 1);
+    }
+
+    private static long[] idRange(DatabaseHelper helper) {
+        try (Statement stmt = helper.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(id), MAX(id) FROM agenda")) {
+            if (rs.next()) {
+                return new long[] {rs.getLong(1), rs.getLong(2)};
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read id range", e);
+        }
+        return new long[] {1, 0};
+    }
+
+    // ========== MAIN ==========
+
+    /**
+     * @param args generate|replay diikuti opsi --nama nilai
+     * @throws IOException jika gagal menulis laporan
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || !(args[0].equals("generate") || args[0].equals("replay"))) {
+            System.out.println("Usage: AgendaGenerator generate [--db agenda.db] [--rows N] [--seed S] [--batch B]");
+            System.out.println("                                [--today yyyy-MM-dd] [--profile bulk-load]");
+            System.out.println("       AgendaGenerator replay [--db agenda.db] [--rate OPS] [--duration SEC]");
+            System.out.println("                              [--mix search=60,insert=20,update=10,delete=5,date=5]");
+            System.out.println("                              [--seed S] [--out report.txt]");
+            return;
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        disableBackgroundWork();
+        if (args[0].equals("generate")) {
+            generate(options);
+        } else {
+            replay(options);
+        }
+    }
+
+    /**
+     * Maintenance (ANALYZE/vacuum), arsip otomatis dan backup terjadwal tidak boleh berjalan
+     * di tengah generate/replay: mengganggu latensi dan memindahkan data dari bawah beban kerja
+     * (sama seperti jvmArgsAppend di DatabaseHelperBenchmark; -D eksplisit tetap berlaku)
+     */
+    private static void disableBackgroundWork() {
+        String[][] defaults = {
+            {"agenda.maintenance.enabled", "false"},
+            {"agenda.backup.schedule.enabled", "false"},
+            {"agenda.archive.olderThanDays", "0"}
+        };
+        for (String[] property : defaults) {
+            if (System.getProperty(property[0]) == null) {
+                System.setProperty(property[0], property[1]);
+            }
+        }
+    }
+
+    /**
+     * Pusat distribusi tanggal: --today yyyy-MM-dd agar data bisa direproduksi persis
+     */
+    private static LocalDate today(Map<String, String> options) {
+        return options.containsKey("today") ? LocalDate.parse(options.get("today")) : LocalDate.now();
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(pair[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty workload mix: " + mix);
+        }
+        return weights;
+    }
+}
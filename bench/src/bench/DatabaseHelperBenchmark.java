@@ -0,0 +1,125 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import database.AgendaRepository;
+import database.DatabaseHelper;
+import database.InMemoryAgendaRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import model.Agenda;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH untuk operasi CRUD dan pencarian AgendaRepository
+ * Setiap trial memakai salinan database sementara berisi 1k, 100k atau 1M baris
+ * (engine sqlite) atau repository in-memory berisi data yang sama (engine memory)
+ *
+ * Jalankan: ant bench -Dbench.include=DatabaseHelperBenchmark
+ * @author slozoy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// Maintenance background (ANALYZE/vacuum) dimatikan agar tidak mengganggu pengukuran
+@Fork(value = 1, jvmArgsAppend = {"-Dagenda.maintenance.enabled=false",
+        "-Dagenda.backup.schedule.enabled=false", "-Dagenda.archive.olderThanDays=0"})
+public class DatabaseHelperBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"sqlite", "memory"})
+    public String engine;
+
+    private Path databaseFile;
+    private AgendaRepository helper;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws IOException {
+        if ("memory".equals(engine)) {
+            helper = new InMemoryAgendaRepository();
+            AgendaFixtures.seed(helper, rows, 42);
+        } else {
+            databaseFile = AgendaFixtures.seededCopy(rows);
+            helper = DatabaseHelper.forUrl(AgendaFixtures.jdbcUrl(databaseFile));
+        }
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws IOException {
+        helper.closeConnection();
+        if (databaseFile != null) {
+            Files.deleteIfExists(databaseFile);
+        }
+    }
+
+    // ========== BENCHMARKS ==========
+
+    @Benchmark
+    public boolean insertAgenda() {
+        return helper.insertAgenda(AgendaFixtures.randomAgenda(random));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Agenda> getAllAgenda() {
+        return helper.getAllAgenda();
+    }
+
+    @Benchmark
+    public Agenda getAgendaById() {
+        return helper.getAgendaById(1 + random.nextInt(rows));
+    }
+
+    @Benchmark
+    public List<Agenda> searchAgenda(SearchKeyword search) {
+        return helper.searchAgenda(search.keyword);
+    }
+
+    @Benchmark
+    public List<Agenda> getAgendaByDate() {
+        return helper.getAgendaByDate(AgendaFixtures.randomDate(random));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Agenda> getAgendaByPrioritas() {
+        return helper.getAgendaByPrioritas(
+                AgendaFixtures.PRIORITAS[random.nextInt(AgendaFixtures.PRIORITAS.length)]);
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Keyword pencarian: umum, frasa spesifik, dan tanpa hasil
+     * (state terpisah agar parameter ini tidak menggandakan benchmark lain)
+     */
+    @State(Scope.Benchmark)
+    public static class SearchKeyword {
+        @Param({"rapat", "laporan 12", "tidakada"})
+        public String keyword;
+    }
+}
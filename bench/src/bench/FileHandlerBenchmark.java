@@ -0,0 +1,109 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bench;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import model.Agenda;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.FileHandler;
+
+/**
+ * Benchmark JMH untuk serialisasi JSON FileHandler (tanpa JFileChooser)
+ * Membandingkan pretty vs compact dan format ExportData vs list agenda saja.
+ * Counter "records" melaporkan records/detik; alokasi per operasi lewat gc profiler
+ *
+ * Jalankan: ant bench -Dbench.include=FileHandlerBenchmark -Dbench.args="-prof gc"
+ * @author slozoy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileHandlerBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean pretty;
+
+    @Param({"true", "false"})
+    public boolean withMetadata;
+
+    private List<Agenda> agendaList;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void createData() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        agendaList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Agenda agenda = AgendaFixtures.randomAgenda(random);
+            agenda.setId(i + 1);
+            agendaList.add(agenda);
+        }
+        StringWriter writer = new StringWriter();
+        FileHandler.writeJSON(agendaList, writer, pretty, withMetadata);
+        json = writer.toString();
+    }
+
+    // ========== BENCHMARKS ==========
+
+    /**
+     * Serialisasi ke writer yang membuang output (hanya biaya Gson + encoding)
+     */
+    @Benchmark
+    public void serialize(RecordCounter counter) throws IOException {
+        FileHandler.writeJSON(agendaList, Writer.nullWriter(), pretty, withMetadata);
+        counter.records += size;
+    }
+
+    /**
+     * Deserialisasi dari JSON yang sudah dibuat saat setup
+     */
+    @Benchmark
+    public List<Agenda> deserialize(RecordCounter counter) throws IOException {
+        List<Agenda> result = FileHandler.readJSON(new StringReader(json));
+        counter.records += result.size();
+        return result;
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Counter tambahan JMH: jumlah record yang diproses (dilaporkan per detik)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RecordCounter {
+        public long records;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            records = 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+
+/**
+ *
+ * Listener untuk perubahan data agenda di database
+ * Dipanggil setelah operasi tulis berhasil, sehingga UI dapat memperbarui
+ * tampilan secara incremental tanpa query ulang seluruh tabel
+ *
+ * @author slozoy
+ */
+public interface AgendaChangeListener {
+
+    /**
+     * Agenda baru berhasil ditambahkan
+     * @param agenda Agenda baru (sudah memiliki ID)
+     */
+    void agendaInserted(Agenda agenda);
+
+    /**
+     * Agenda berhasil diupdate
+     * @param agenda Agenda dengan data terbaru
+     */
+    void agendaUpdated(Agenda agenda);
+
+    /**
+     * Agenda berhasil dihapus
+     * @param id ID agenda yang dihapus
+     */
+    void agendaDeleted(int id);
+
+    /**
+     * Perubahan massal (misalnya hapus semua), data perlu dimuat ulang
+     */
+    void agendaReloaded();
+}
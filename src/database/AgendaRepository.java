@@ -0,0 +1,248 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ *
+ * Kontrak storage engine agenda (CRUD, pencarian, dan event perubahan)
+ * Implementasi: DatabaseHelper (SQLite), ShardedAgendaRepository (SQLite per tahun/bulan)
+ * dan InMemoryAgendaRepository
+ * Engine dipilih lewat system property agenda.storage (sqlite | sharded | memory), lihat open()
+ *
+ * @author slozoy
+ */
+public interface AgendaRepository {
+
+    // ========== FACTORY ==========
+
+    /**
+     * Buka storage engine sesuai system property agenda.storage
+     * sqlite (default) = DatabaseHelper.getInstance(), sharded = ShardedAgendaRepository,
+     * memory = InMemoryAgendaRepository
+     * @return AgendaRepository
+     */
+    static AgendaRepository open() {
+        String engine = System.getProperty("agenda.storage", "sqlite");
+        switch (engine) {
+            case "memory":
+                return new InMemoryAgendaRepository();
+            case "sqlite":
+                return DatabaseHelper.getInstance();
+            case "sharded":
+                return new ShardedAgendaRepository(DatabaseConfig.load());
+            default:
+                throw new IllegalArgumentException("Unknown agenda.storage engine: " + engine);
+        }
+    }
+
+    // ========== CREATE ==========
+
+    /**
+     * Menambah agenda baru, ID di-set kembali ke objek agenda
+     * @param agenda Agenda yang akan ditambahkan
+     * @return true jika berhasil
+     */
+    boolean insertAgenda(Agenda agenda);
+
+    /**
+     * Menambah agenda tanpa menunggu (default: dijalankan langsung)
+     * @param agenda Agenda yang akan ditambahkan
+     * @return Future berisi true jika berhasil
+     */
+    default CompletableFuture<Boolean> insertAgendaAsync(Agenda agenda) {
+        return CompletableFuture.completedFuture(insertAgenda(agenda));
+    }
+
+    /**
+     * Menambah banyak agenda sekaligus
+     * @param agendaList Agenda yang akan ditambahkan
+     * @return Jumlah agenda yang berhasil ditambahkan
+     */
+    int insertAgendaBatch(List<Agenda> agendaList);
+
+    // ========== READ ==========
+
+    /**
+     * @return Semua agenda, terurut berdasarkan tanggal
+     */
+    List<Agenda> getAllAgenda();
+
+    /**
+     * @param id ID agenda
+     * @return Agenda, atau null jika tidak ada
+     */
+    Agenda getAgendaById(int id);
+
+    /**
+     * @param tanggal Tanggal (jam diabaikan)
+     * @return Agenda pada tanggal tersebut, terurut berdasarkan waktu
+     */
+    List<Agenda> getAgendaByDate(LocalDateTime tanggal);
+
+    /**
+     * Agenda dalam rentang waktu [from, to)
+     * Default: saring getAllAgenda; engine sebaiknya memakai index tanggal
+     * @param from Awal rentang (inklusif)
+     * @param to Akhir rentang (eksklusif)
+     * @return Agenda dalam rentang, terurut berdasarkan tanggal
+     */
+    default List<Agenda> getAgendaBetween(LocalDateTime from, LocalDateTime to) {
+        List<Agenda> agendaList = getAllAgenda();
+        agendaList.removeIf(agenda -> agenda.getTanggalWaktu().isBefore(from)
+                || !agenda.getTanggalWaktu().isBefore(to));
+        return agendaList;
+    }
+
+    /**
+     * @param keyword Kata kunci (judul atau deskripsi, tidak case-sensitive)
+     * @return Agenda yang cocok, terurut berdasarkan tanggal
+     */
+    List<Agenda> searchAgenda(String keyword);
+
+    /**
+     * @param keyword Kata kunci (kosong = semua agenda)
+     * @param prioritas Prioritas, atau null untuk semua prioritas
+     * @return Agenda yang cocok, terurut berdasarkan tanggal
+     */
+    List<Agenda> searchAgenda(String keyword, String prioritas);
+
+    /**
+     * @param keyword Kata kunci (kosong = semua agenda)
+     * @param prioritas Prioritas, atau null untuk semua prioritas
+     * @param sortField Kolom pengurutan
+     * @param ascending true untuk urutan naik
+     * @return Agenda yang cocok dengan urutan tertentu
+     */
+    List<Agenda> getAgendaSorted(String keyword, String prioritas,
+                                 AgendaSortField sortField, boolean ascending);
+
+    /**
+     * @param keyword Kata kunci (toleran salah ketik)
+     * @return Agenda terurut berdasarkan kemiripan
+     */
+    List<Agenda> fuzzySearchAgenda(String keyword);
+
+    /**
+     * @param prioritas Prioritas yang dicari
+     * @return Agenda dengan prioritas tersebut, terurut berdasarkan tanggal
+     */
+    List<Agenda> getAgendaByPrioritas(String prioritas);
+
+    /**
+     * @return Jumlah agenda (partisi aktif, sama dengan getAllAgenda)
+     */
+    int getTotalAgenda();
+
+    // ========== UPDATE / DELETE ==========
+
+    /**
+     * @param agenda Agenda dengan data baru (berdasarkan ID)
+     * @return true jika berhasil
+     */
+    boolean updateAgenda(Agenda agenda);
+
+    /**
+     * Update tanpa menunggu (default: dijalankan langsung)
+     * @param agenda Agenda dengan data baru
+     * @return Future berisi true jika berhasil
+     */
+    default CompletableFuture<Boolean> updateAgendaAsync(Agenda agenda) {
+        return CompletableFuture.completedFuture(updateAgenda(agenda));
+    }
+
+    /**
+     * @param id ID agenda yang dihapus
+     * @return true jika berhasil
+     */
+    boolean deleteAgenda(int id);
+
+    /**
+     * Hapus tanpa menunggu (default: dijalankan langsung)
+     * @param id ID agenda yang dihapus
+     * @return Future berisi true jika berhasil
+     */
+    default CompletableFuture<Boolean> deleteAgendaAsync(int id) {
+        return CompletableFuture.completedFuture(deleteAgenda(id));
+    }
+
+    /**
+     * Hapus semua agenda
+     * @return true jika berhasil
+     */
+    boolean deleteAllAgenda();
+
+    // ========== ARCHIVE ==========
+
+    // Agenda lama dapat dipindahkan ke partisi arsip; semua query di atas hanya membaca
+    // partisi aktif. Engine tanpa arsip (in-memory) mengabaikan includeArchive
+
+    /**
+     * @param keyword Kata kunci (kosong = semua agenda)
+     * @param prioritas Prioritas, atau null untuk semua prioritas
+     * @param includeArchive true untuk ikut mencari di arsip
+     * @return Agenda yang cocok, terurut berdasarkan tanggal
+     */
+    default List<Agenda> searchAgenda(String keyword, String prioritas, boolean includeArchive) {
+        return searchAgenda(keyword, prioritas);
+    }
+
+    /**
+     * @param keyword Kata kunci (kosong = semua agenda)
+     * @param prioritas Prioritas, atau null untuk semua prioritas
+     * @param sortField Kolom pengurutan
+     * @param ascending true untuk urutan naik
+     * @param includeArchive true untuk ikut membaca arsip
+     * @return Agenda yang cocok dengan urutan tertentu
+     */
+    default List<Agenda> getAgendaSorted(String keyword, String prioritas,
+                                         AgendaSortField sortField, boolean ascending,
+                                         boolean includeArchive) {
+        return getAgendaSorted(keyword, prioritas, sortField, ascending);
+    }
+
+    /**
+     * Pindahkan agenda dengan tanggal sebelum cutoff ke arsip
+     * @param cutoff Batas tanggal (eksklusif)
+     * @return Jumlah agenda yang dipindahkan (default 0: engine tanpa arsip)
+     */
+    default int archiveOlderThan(LocalDateTime cutoff) {
+        return 0;
+    }
+
+    /**
+     * @param includeArchive true untuk ikut menghitung arsip
+     * @return Jumlah agenda (getTotalAgenda() hanya menghitung partisi aktif)
+     */
+    default int getTotalAgenda(boolean includeArchive) {
+        return getTotalAgenda();
+    }
+
+    // ========== LISTENERS & LIFECYCLE ==========
+
+    /**
+     * @param listener Listener yang dipanggil setelah operasi tulis berhasil
+     */
+    void addChangeListener(AgendaChangeListener listener);
+
+    /**
+     * @param listener Listener yang akan dihapus
+     */
+    void removeChangeListener(AgendaChangeListener listener);
+
+    /**
+     * @return Metrics latensi per operasi (nama operasi sama di semua engine)
+     */
+    QueryMetrics getMetrics();
+
+    /**
+     * Tutup storage (connection, thread writer)
+     */
+    void closeConnection();
+}
@@ -0,0 +1,346 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import util.Log;
+
+/**
+ *
+ * Inverted index trigram in-memory untuk pencarian substring (search-as-you-type)
+ * Setiap trigram dari judul/deskripsi memetakan ke posting list (BitSet slot),
+ * sehingga query dijawab dengan interseksi posting list tanpa query ke database
+ *
+ * @author slozoy
+ */
+public class AgendaSearchIndex {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(AgendaSearchIndex.class);
+    private static final int GRAM_SIZE = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final int DEFAULT_MAX_ENTRIES = 250_000;
+
+    /**
+     * Urutan hasil sama dengan query SQL: ORDER BY tanggal_waktu ASC
+     */
+    private static final Comparator<Agenda> RESULT_ORDER =
+            Comparator.comparing(Agenda::getTanggalWaktu).thenComparingInt(Agenda::getId);
+
+    // ========== ATTRIBUTES ==========
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BitSet> postings = new HashMap<>();
+    private final Map<Integer, Integer> slotById = new HashMap<>();
+    private final List<Entry> slots = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet liveSlots = new BitSet();
+    private final int maxEntries;
+    private final boolean configured;
+    private boolean enabled;
+
+    /**
+     * Constructor, konfigurasi dibaca dari system properties:
+     * agenda.index.enabled (default true) dan agenda.index.maxEntries
+     */
+    public AgendaSearchIndex() {
+        this.configured = Boolean.parseBoolean(System.getProperty("agenda.index.enabled", "true"));
+        this.enabled = configured;
+        this.maxEntries = Integer.getInteger("agenda.index.maxEntries", DEFAULT_MAX_ENTRIES);
+    }
+
+    // ========== INDEX MAINTENANCE ==========
+
+    /**
+     * Bangun ulang index dari seluruh data
+     * Index dinonaktifkan jika jumlah data melebihi batas memori, dan aktif kembali
+     * saat rebuild berikutnya jika jumlah data sudah di bawah batas
+     * @param agendaList Semua agenda di database
+     */
+    public void rebuild(List<Agenda> agendaList) {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+            if (!configured) {
+                return;
+            }
+            if (agendaList.size() > maxEntries) {
+                if (enabled) {
+                    disableInternal();
+                }
+                return;
+            }
+            if (!enabled) {
+                enabled = true;
+                LOG.info("Search index re-enabled (" + agendaList.size() + " entries)");
+            }
+            for (Agenda agenda : agendaList) {
+                addInternal(agenda);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tambah agenda baru ke index
+     * @param agenda Agenda yang sudah memiliki ID
+     */
+    public void add(Agenda agenda) {
+        lock.writeLock().lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+            if (slotById.size() >= maxEntries) {
+                disableInternal();
+                return;
+            }
+            addInternal(agenda);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update agenda di index (hapus posting lama, tambah yang baru)
+     * @param agenda Agenda dengan data terbaru
+     */
+    public void update(Agenda agenda) {
+        lock.writeLock().lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+            removeInternal(agenda.getId());
+            addInternal(agenda);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hapus agenda dari index
+     * @param id ID agenda
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (enabled) {
+                removeInternal(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Kosongkan index (misalnya setelah deleteAllAgenda)
+     * Index yang dinonaktifkan karena batas memori aktif kembali
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+            enabled = configured;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cek apakah index aktif dan bisa menjawab query
+     * @return true jika aktif
+     */
+    public boolean isEnabled() {
+        lock.readLock().lock();
+        try {
+            return enabled;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cek apakah index diaktifkan lewat konfigurasi (agenda.index.enabled),
+     * walaupun saat ini nonaktif karena batas memori
+     * @return true jika dikonfigurasi aktif
+     */
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    // ========== SEARCH ==========
+
+    /**
+     * Cari agenda yang judul atau deskripsinya mengandung keyword
+     * (semantik sama dengan LIKE '%keyword%' tanpa membedakan huruf besar/kecil)
+     * @param keyword Kata kunci pencarian
+     * @return List agenda terurut berdasarkan tanggal, atau null jika index
+     *         tidak bisa menjawab (nonaktif atau keyword berisi wildcard LIKE)
+     */
+    public List<Agenda> search(String keyword) {
+        if (keyword.indexOf('%') >= 0 || keyword.indexOf('_') >= 0
+                || keyword.indexOf(FIELD_SEPARATOR) >= 0) {
+            return null; // Biarkan SQL yang menangani wildcard
+        }
+        String needle = keyword.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            if (!enabled) {
+                return null;
+            }
+
+            BitSet candidates = candidateSlots(needle);
+            List<Agenda> results = new ArrayList<>();
+            for (int slot = candidates.nextSetBit(0); slot >= 0;
+                    slot = candidates.nextSetBit(slot + 1)) {
+                Entry entry = slots.get(slot);
+                // Verifikasi untuk membuang false positive dari interseksi trigram
+                if (entry.text.contains(needle)) {
+                    results.add(copyOf(entry.agenda));
+                }
+            }
+            results.sort(RESULT_ORDER);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    /**
+     * Interseksi posting list untuk semua trigram dari keyword
+     * Keyword pendek (< 3 karakter) memakai semua slot aktif sebagai kandidat
+     */
+    private BitSet candidateSlots(String needle) {
+        if (needle.length() < GRAM_SIZE) {
+            return (BitSet) liveSlots.clone();
+        }
+
+        BitSet result = null;
+        for (int i = 0; i + GRAM_SIZE <= needle.length(); i++) {
+            BitSet posting = postings.get(trigramKey(needle, i));
+            if (posting == null) {
+                return new BitSet(); // Ada trigram yang tidak pernah muncul
+            }
+            if (result == null) {
+                result = (BitSet) posting.clone();
+            } else {
+                result.and(posting);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void addInternal(Agenda agenda) {
+        removeInternal(agenda.getId()); // Add ulang untuk ID yang sama: buang slot lama
+        Entry entry = new Entry(copyOf(agenda), buildText(agenda));
+
+        Integer slot = freeSlots.poll();
+        if (slot == null) {
+            slot = slots.size();
+            slots.add(entry);
+        } else {
+            slots.set(slot, entry);
+        }
+        slotById.put(agenda.getId(), slot);
+        liveSlots.set(slot);
+
+        String text = entry.text;
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            postings.computeIfAbsent(trigramKey(text, i), k -> new BitSet()).set(slot);
+        }
+    }
+
+    private void removeInternal(int id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+
+        String text = slots.get(slot).text;
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            long key = trigramKey(text, i);
+            BitSet posting = postings.get(key);
+            if (posting != null) {
+                posting.clear(slot);
+                if (posting.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+
+        slots.set(slot, null);
+        liveSlots.clear(slot);
+        freeSlots.push(slot);
+    }
+
+    private void clearInternal() {
+        postings.clear();
+        slotById.clear();
+        slots.clear();
+        freeSlots.clear();
+        liveSlots.clear();
+    }
+
+    private void disableInternal() {
+        clearInternal();
+        enabled = false;
+        LOG.warn("Search index disabled (limit " + maxEntries + " entries)");
+    }
+
+    /**
+     * Gabungkan judul dan deskripsi (lowercase) dengan separator
+     * agar tidak ada trigram yang melintasi dua field
+     */
+    private static String buildText(Agenda agenda) {
+        String judul = agenda.getJudul() == null ? "" : agenda.getJudul();
+        String deskripsi = agenda.getDeskripsi() == null ? "" : agenda.getDeskripsi();
+        return (judul + FIELD_SEPARATOR + deskripsi).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Encode tiga karakter menjadi satu key long (tanpa alokasi substring)
+     */
+    private static long trigramKey(String text, int start) {
+        return ((long) text.charAt(start) << 32)
+                | ((long) text.charAt(start + 1) << 16)
+                | text.charAt(start + 2);
+    }
+
+    private static Agenda copyOf(Agenda agenda) {
+        return new Agenda(agenda.getId(), agenda.getJudul(), agenda.getDeskripsi(),
+                agenda.getTanggalWaktu(), agenda.getPrioritas());
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Data yang disimpan per slot index
+     */
+    private static class Entry {
+        private final Agenda agenda;
+        private final String text;
+
+        Entry(Agenda agenda, String text) {
+            this.agenda = agenda;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Enum.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.util.Comparator;
+
+/**
+ *
+ * Kolom pengurutan agenda yang didukung oleh database
+ * Setiap ekspresi ORDER BY memiliki index yang sama persis (lihat createIndexes),
+ * sehingga SQLite tidak perlu sort in-memory
+ *
+ * @author slozoy
+ */
+public enum AgendaSortField {
+
+    ID("id"),
+    JUDUL("judul COLLATE NOCASE"),
+    TANGGAL("tanggal_waktu"),
+    WAKTU("time(tanggal_waktu)"),
+    PRIORITAS("(CASE prioritas WHEN 'Rendah' THEN 1 WHEN 'Sedang' THEN 2 "
+            + "WHEN 'Tinggi' THEN 3 WHEN 'Urgent' THEN 4 ELSE 0 END)");
+
+    private final String expression;
+
+    AgendaSortField(String expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Ekspresi SQL untuk ORDER BY / CREATE INDEX
+     * @return Ekspresi SQL
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Comparator yang setara dengan ekspresi ORDER BY
+     * (untuk engine tanpa SQL dan untuk menggabungkan hasil terurut)
+     * @return Comparator agenda
+     */
+    public Comparator<Agenda> comparator() {
+        switch (this) {
+            case JUDUL:
+                return Comparator.comparing(Agenda::getJudul, AgendaSortField::compareNoCase);
+            case TANGGAL:
+                return Comparator.comparing(Agenda::getTanggalWaktu);
+            case WAKTU:
+                return Comparator.comparing(agenda -> agenda.getTanggalWaktu().toLocalTime());
+            case PRIORITAS:
+                return Comparator.comparingInt(Agenda::getPrioritasRank);
+            case ID:
+            default:
+                return Comparator.comparingInt(Agenda::getId);
+        }
+    }
+
+    /**
+     * Sama persis dengan COLLATE NOCASE SQLite: hanya A-Z yang dilipat, sisanya dibandingkan
+     * per code point (urutan byte UTF-8). String.CASE_INSENSITIVE_ORDER juga melipat huruf
+     * non-ASCII dan membandingkan per char UTF-16, sehingga tidak cocok untuk merge hasil SQL
+     */
+    private static int compareNoCase(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            int diff = foldAscii(ca) - foldAscii(cb);
+            if (diff != 0) {
+                return diff;
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+
+    private static int foldAscii(int codePoint) {
+        return codePoint >= 'A' && codePoint <= 'Z' ? codePoint + ('a' - 'A') : codePoint;
+    }
+}
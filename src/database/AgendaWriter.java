@@ -0,0 +1,310 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import util.Log;
+
+/**
+ *
+ * Single writer untuk database: semua operasi tulis masuk ke antrean dan
+ * dijalankan oleh satu thread dengan connection sendiri.
+ * Operasi yang datang berdekatan digabung dalam satu transaksi (group commit),
+ * dibatasi jumlah maksimum per batch dan waktu tunggu maksimum sejak operasi
+ * pertama, sehingga banyak penulis bersamaan hanya membayar satu commit/fsync.
+ * Setiap operasi dibungkus SAVEPOINT: operasi yang gagal tidak membatalkan batch.
+ * Callback afterCommit dijalankan setelah commit, lalu future diselesaikan.
+ * Jika tidak ada operasi lain di antrean, operasi langsung di-commit tanpa menunggu.
+ * Operasi yang belum diambil thread writer bisa ditarik (WriteFuture.withdraw)
+ *
+ * Konfigurasi (system properties):
+ * agenda.writer.maxBatch (default 512), agenda.writer.maxDelayMs (default 2),
+ * agenda.writer.queueCapacity (default 10000, put menunggu jika penuh)
+ *
+ * @author slozoy
+ */
+public class AgendaWriter {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(AgendaWriter.class);
+
+    // ========== ATTRIBUTES ==========
+    private final Connection connection;
+    private final boolean ownsConnection;
+    private final QueryMetrics metrics;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Write<?>> queue;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor, thread writer langsung berjalan
+     * @param connection Connection khusus writer (atau connection bersama untuk database in-memory)
+     * @param ownsConnection true jika connection ditutup saat shutdown
+     * @param metrics Metrics untuk ukuran batch dan waktu commit
+     */
+    public AgendaWriter(Connection connection, boolean ownsConnection, QueryMetrics metrics) {
+        this(connection, ownsConnection, metrics, Thread.ofPlatform().daemon(true));
+    }
+
+    /**
+     * Constructor dengan jenis thread tertentu (misalnya virtual thread untuk writer shard,
+     * yang sebagian besar waktunya menunggu di antrean)
+     * @param connection Connection khusus writer
+     * @param ownsConnection true jika connection ditutup saat shutdown
+     * @param metrics Metrics untuk ukuran batch dan waktu commit
+     * @param threadBuilder Builder thread writer
+     */
+    public AgendaWriter(Connection connection, boolean ownsConnection, QueryMetrics metrics,
+                        Thread.Builder threadBuilder) {
+        this.connection = connection;
+        this.ownsConnection = ownsConnection;
+        this.metrics = metrics;
+        this.maxBatch = Math.max(1, Integer.getInteger("agenda.writer.maxBatch", 512));
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("agenda.writer.maxDelayMs", 2));
+        this.queue = new LinkedBlockingQueue<>(Integer.getInteger("agenda.writer.queueCapacity", 10_000));
+        this.thread = threadBuilder.name("agenda-writer").unstarted(this::run);
+        this.thread.start();
+    }
+
+    // ========== SUBMIT ==========
+
+    /**
+     * Antrekan operasi tulis
+     * @param <T> Tipe hasil
+     * @param task Operasi yang dijalankan di dalam transaksi batch
+     * @param afterCommit Dipanggil di thread writer setelah commit berhasil (boleh null)
+     * @return Future yang selesai setelah commit (gagal jika operasi/commit gagal);
+     *         turunannya (thenApply, whenComplete) tetap berupa WriteFuture
+     */
+    public <T> CompletableFuture<T> submit(WriteTask<T> task, AfterCommit<T> afterCommit) {
+        Write<T> write = new Write<>(task, afterCommit, queue);
+        if (!running) {
+            write.future.completeExceptionally(new IllegalStateException("Writer is closed"));
+            return write.future;
+        }
+        try {
+            queue.put(write); // Back-pressure: menunggu jika antrean penuh
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.future.completeExceptionally(e);
+            return write.future;
+        }
+        // shutdown bisa terjadi di antara cek running dan put: jika operasi masih di antrean,
+        // tidak ada lagi yang akan memprosesnya (thread writer atau drain shutdown sudah lewat)
+        if (!running && queue.remove(write)) {
+            write.future.completeExceptionally(new IllegalStateException("Writer is closed"));
+        }
+        return write.future;
+    }
+
+    /**
+     * Hentikan writer setelah antrean habis diproses
+     * @param timeoutMillis Batas waktu menunggu
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Write<?>> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (Write<?> write : leftover) {
+            write.future.completeExceptionally(new IllegalStateException("Writer is closed"));
+        }
+        if (ownsConnection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOG.warn("Failed to close writer connection: " + e.getMessage());
+            }
+        }
+    }
+
+    // ========== WRITER LOOP ==========
+
+    private void run() {
+        List<Write<?>> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: proses sisa antrean tanpa menunggu
+                queue.drainTo(batch, maxBatch - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                execute(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Ambil operasi pertama (blocking), lalu kumpulkan operasi berikutnya
+     * sampai batch penuh atau maxDelay sejak operasi pertama habis.
+     * Penulis tunggal (antrean kosong) tidak menunggu maxDelay
+     */
+    private void collectBatch(List<Write<?>> batch) throws InterruptedException {
+        batch.add(queue.take());
+        if (queue.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatch) {
+            if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Write<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void execute(List<Write<?>> batch) {
+        QueryMetrics.Timer timer = metrics.start("writer.batch");
+        try (Statement savepoints = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Write<?> write : batch) {
+                    savepoints.execute("SAVEPOINT agenda_write");
+                    try {
+                        write.run(connection);
+                        savepoints.execute("RELEASE agenda_write");
+                    } catch (SQLException | RuntimeException e) {
+                        savepoints.execute("ROLLBACK TO agenda_write");
+                        savepoints.execute("RELEASE agenda_write");
+                        write.error = e;
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            timer.stop(batch.size());
+        } catch (SQLException e) {
+            timer.fail();
+            LOG.error("Write batch of " + batch.size() + " operation(s) failed, rolled back", e);
+            for (Write<?> write : batch) {
+                write.future.completeExceptionally(e);
+            }
+            return;
+        }
+
+        for (Write<?> write : batch) {
+            write.complete();
+        }
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Operasi tulis yang dijalankan di dalam transaksi batch
+     * @param <T> Tipe hasil
+     */
+    @FunctionalInterface
+    public interface WriteTask<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Callback setelah commit (misalnya update index dan kirim event)
+     * @param <T> Tipe hasil
+     */
+    @FunctionalInterface
+    public interface AfterCommit<T> {
+        void accept(T result);
+    }
+
+    /**
+     * Future operasi tulis. Future turunan (thenApply, whenComplete) juga WriteFuture
+     * dengan operasi yang sama, sehingga pemanggil yang berhenti menunggu bisa
+     * menarik operasinya dari antrean lewat future mana pun
+     * @param <T> Tipe hasil
+     */
+    public static final class WriteFuture<T> extends CompletableFuture<T> {
+        private final Write<?> write;
+
+        private WriteFuture(Write<?> write) {
+            this.write = write;
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new WriteFuture<>(write);
+        }
+
+        /**
+         * Tarik operasi dari antrean jika belum diambil thread writer
+         * @return true jika operasi pasti tidak dijalankan (future gagal dengan
+         *         CancellationException); false jika sudah berjalan atau selesai
+         */
+        public boolean withdraw() {
+            if (!write.queue.remove(write)) {
+                return false;
+            }
+            write.future.completeExceptionally(new CancellationException("Write withdrawn before execution"));
+            return true;
+        }
+    }
+
+    /**
+     * Satu operasi di antrean beserta hasil dan future-nya
+     */
+    private static final class Write<T> {
+        private final WriteTask<T> task;
+        private final AfterCommit<T> afterCommit;
+        private final BlockingQueue<Write<?>> queue;
+        private final WriteFuture<T> future = new WriteFuture<>(this);
+        private T result;
+        private Exception error;
+
+        Write(WriteTask<T> task, AfterCommit<T> afterCommit, BlockingQueue<Write<?>> queue) {
+            this.task = task;
+            this.afterCommit = afterCommit;
+            this.queue = queue;
+        }
+
+        void run(Connection connection) throws SQLException {
+            result = task.execute(connection);
+        }
+
+        void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            try {
+                if (afterCommit != null) {
+                    afterCommit.accept(result);
+                }
+            } catch (RuntimeException e) {
+                LOG.error("After-commit callback failed", e);
+            }
+            future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ *
+ * Facade asynchronous untuk AgendaRepository (SQLite atau in-memory): setiap method mengembalikan CompletableFuture
+ * Operasi baca dijalankan di virtual thread (satu thread per panggilan), dibatasi
+ * jumlah panggilan yang sedang berjalan (Semaphore) agar lonjakan permintaan tidak
+ * menumpuk di JDBC. Jika batas penuh, virtual thread panggilan itu (bukan pemanggil,
+ * yang bisa saja EDT) menunggu paling lama acquireTimeout, lalu future gagal dengan
+ * RejectedExecutionException (back-pressure)
+ * Operasi tulis diteruskan ke method *Async milik repository (writer queue
+ * dengan group commit pada DatabaseHelper)
+ * Setiap future diberi batas waktu; future yang timeout gagal dengan TimeoutException,
+ * tetapi permit baru dilepas setelah query JDBC benar-benar selesai
+ *
+ * Konfigurasi (system properties):
+ * agenda.async.maxInFlight (default 64), agenda.async.acquireTimeoutMs (default 1000),
+ * agenda.async.timeoutMs (default 5000)
+ *
+ * @author slozoy
+ */
+public class AsyncAgendaRepository implements AutoCloseable {
+
+    // ========== ATTRIBUTES ==========
+    private final AgendaRepository repository;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMillis;
+    private final Duration defaultTimeout;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor, konfigurasi dari system properties
+     * @param repository Repository yang dibungkus
+     */
+    public AsyncAgendaRepository(AgendaRepository repository) {
+        this(repository, Integer.getInteger("agenda.async.maxInFlight", 64),
+             Long.getLong("agenda.async.acquireTimeoutMs", 1000),
+             Duration.ofMillis(Long.getLong("agenda.async.timeoutMs", 5000)));
+    }
+
+    /**
+     * Constructor
+     * @param repository Repository yang dibungkus
+     * @param maxInFlight Jumlah maksimum panggilan baca yang berjalan bersamaan
+     * @param acquireTimeoutMillis Lama menunggu slot sebelum panggilan ditolak
+     * @param defaultTimeout Batas waktu default setiap panggilan
+     */
+    public AsyncAgendaRepository(AgendaRepository repository, int maxInFlight,
+                                 long acquireTimeoutMillis, Duration defaultTimeout) {
+        this.repository = repository;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.permits = new Semaphore(this.maxInFlight);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.defaultTimeout = defaultTimeout;
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("agenda-async-", 0).factory());
+    }
+
+    // ========== READ OPERATIONS ==========
+
+    /**
+     * READ - Semua agenda, terurut berdasarkan tanggal
+     */
+    public CompletableFuture<List<Agenda>> getAllAgenda() {
+        return call(AgendaRepository::getAllAgenda);
+    }
+
+    /**
+     * READ - Agenda berdasarkan ID (hasil null jika tidak ada)
+     */
+    public CompletableFuture<Agenda> getAgendaById(int id) {
+        return call(db -> db.getAgendaById(id));
+    }
+
+    /**
+     * READ - Agenda pada tanggal tertentu
+     */
+    public CompletableFuture<List<Agenda>> getAgendaByDate(LocalDateTime tanggal) {
+        return call(db -> db.getAgendaByDate(tanggal));
+    }
+
+    /**
+     * READ - Agenda dengan prioritas tertentu
+     */
+    public CompletableFuture<List<Agenda>> getAgendaByPrioritas(String prioritas) {
+        return call(db -> db.getAgendaByPrioritas(prioritas));
+    }
+
+    /**
+     * READ - Pencarian keyword + filter prioritas (memakai cache hasil)
+     */
+    public CompletableFuture<List<Agenda>> searchAgenda(String keyword, String prioritas) {
+        return call(db -> db.searchAgenda(keyword, prioritas));
+    }
+
+    /**
+     * READ - Pencarian fuzzy pada judul
+     */
+    public CompletableFuture<List<Agenda>> fuzzySearchAgenda(String keyword) {
+        return call(db -> db.fuzzySearchAgenda(keyword));
+    }
+
+    /**
+     * READ - Pencarian dengan ORDER BY di database
+     */
+    public CompletableFuture<List<Agenda>> getAgendaSorted(String keyword, String prioritas,
+                                                          AgendaSortField sortField, boolean ascending) {
+        return call(db -> db.getAgendaSorted(keyword, prioritas, sortField, ascending));
+    }
+
+    /**
+     * READ - Jumlah total agenda
+     */
+    public CompletableFuture<Integer> getTotalAgenda() {
+        return call(AgendaRepository::getTotalAgenda);
+    }
+
+    // ========== WRITE OPERATIONS ==========
+
+    /**
+     * CREATE - Lewat writer queue; ID di-set setelah commit
+     */
+    public CompletableFuture<Boolean> insertAgenda(Agenda agenda) {
+        return repository.insertAgendaAsync(agenda).orTimeout(defaultTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * UPDATE - Lewat writer queue
+     */
+    public CompletableFuture<Boolean> updateAgenda(Agenda agenda) {
+        return repository.updateAgendaAsync(agenda).orTimeout(defaultTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * DELETE - Lewat writer queue
+     */
+    public CompletableFuture<Boolean> deleteAgenda(int id) {
+        return repository.deleteAgendaAsync(id).orTimeout(defaultTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // ========== EXECUTION ==========
+
+    /**
+     * Jalankan operasi sembarang terhadap repository dengan batas waktu default
+     * @param <T> Tipe hasil
+     * @param operation Operasi blocking yang dijalankan di virtual thread
+     * @return Future hasil operasi
+     */
+    public <T> CompletableFuture<T> call(Function<AgendaRepository, T> operation) {
+        return call(operation, defaultTimeout);
+    }
+
+    /**
+     * Jalankan operasi sembarang terhadap repository
+     * Tidak pernah memblokir pemanggil: slot in-flight ditunggu di virtual thread
+     * (paling lama acquireTimeout, termasuk dalam batas waktu future)
+     * @param <T> Tipe hasil
+     * @param operation Operasi blocking yang dijalankan di virtual thread
+     * @param timeout Batas waktu sampai future gagal dengan TimeoutException
+     * @return Future hasil operasi
+     */
+    public <T> CompletableFuture<T> call(Function<AgendaRepository, T> operation, Duration timeout) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        rejected.increment();
+                        future.completeExceptionally(new RejectedExecutionException(
+                                "Too many concurrent database calls (max " + maxInFlight + ")"));
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    future.complete(operation.apply(repository));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // ========== STATISTICS ==========
+
+    /**
+     * @return Jumlah panggilan baca yang sedang berjalan
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * @return Jumlah panggilan yang ditolak karena batas in-flight penuh
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Tolak panggilan baru dan tunggu panggilan yang sedang berjalan
+     * Repository tidak ditutup (dimiliki pemanggil)
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(defaultTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
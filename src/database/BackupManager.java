@@ -0,0 +1,250 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.sqlite.SQLiteConnection;
+import util.Log;
+import util.jfr.FileTransferEvent;
+
+/**
+ *
+ * Backup online database memakai SQLite backup API
+ * Backup berjalan di thread prioritas rendah dengan connection sendiri yang menahan
+ * satu snapshot baca (WAL), sehingga hasilnya konsisten walaupun writer terus menulis.
+ * Page disalin per langkah kecil (pagesPerStep) dengan jeda di antara langkah,
+ * ditulis ke file .partial lalu di-rename ke file bertimestamp
+ * Setiap backup dicatat di metrics ("backup") dan sebagai event JFR agenda.FileTransfer
+ *
+ * Konfigurasi (system properties):
+ * agenda.backup.dir (default backups), agenda.backup.pagesPerStep (default 64),
+ * agenda.backup.pauseMs (default 5)
+ *
+ * @author slozoy
+ */
+public class BackupManager {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(BackupManager.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int SQLITE_OK = 0;
+    private static final int SQLITE_DONE = 101;
+    private static final int BUSY_RETRIES = 100;
+
+    // ========== ATTRIBUTES ==========
+    private final DatabaseConfig config;
+    private final QueryMetrics metrics;
+    private final Path backupDir;
+    private final String baseName;
+    private final int pagesPerStep;
+    private final int pauseMillis;
+    // Thread backup berhenti setelah idle, agar banyak instance (shard) tidak menahan thread
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "db-backup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * Constructor, konfigurasi dari system properties
+     * @param config Konfigurasi database sumber
+     * @param metrics Tujuan metrics backup
+     */
+    public BackupManager(DatabaseConfig config, QueryMetrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+        this.backupDir = Paths.get(System.getProperty("agenda.backup.dir", "backups"));
+        String fileName = Paths.get(config.getPath()).getFileName().toString();
+        this.baseName = fileName.endsWith(".db") ? fileName.substring(0, fileName.length() - 3) : fileName;
+        this.pagesPerStep = Math.max(1, Integer.getInteger("agenda.backup.pagesPerStep", 64));
+        this.pauseMillis = Math.max(0, Integer.getInteger("agenda.backup.pauseMs", 5));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // ========== BACKUP ==========
+
+    /**
+     * Backup di background ke file baru di agenda.backup.dir
+     * @return Future berisi path file backup
+     */
+    public CompletableFuture<Path> backupAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return backup(newBackupFile());
+            } catch (SQLException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Backup ke file tertentu (blocking, dipanggil dari thread background)
+     * @param target File tujuan (ditimpa jika sudah ada)
+     * @return Path file backup
+     * @throws SQLException jika backup gagal
+     * @throws IOException jika file tidak bisa dibuat/dipindahkan
+     */
+    public Path backup(Path target) throws SQLException, IOException {
+        Path absolute = target.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path partial = absolute.resolveSibling(absolute.getFileName() + ".partial");
+        Files.deleteIfExists(partial);
+
+        FileTransferEvent event = new FileTransferEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int[] steps = new int[2]; // [jumlah langkah, total page]
+        boolean success = false;
+        try (Connection conn = DriverManager.getConnection(config.getJdbcUrl())) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+                rs.next(); // Mulai transaksi baca: snapshot tetap selama backup
+            }
+
+            int rc = conn.unwrap(SQLiteConnection.class).getDatabase().backup("main", partial.toString(),
+                    (remaining, pageCount) -> {
+                        steps[0]++;
+                        steps[1] = pageCount;
+                        pause();
+                    }, pauseMillis, BUSY_RETRIES, pagesPerStep);
+            conn.rollback();
+            if (rc != SQLITE_OK && rc != SQLITE_DONE) {
+                throw new SQLException("SQLite backup failed with code " + rc);
+            }
+
+            Files.move(partial, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            success = true;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(partial);
+            }
+            long elapsed = System.nanoTime() - start;
+            long bytes = success ? Files.size(absolute) : 0;
+            metrics.record("backup", elapsed, steps[1], success);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "backup";
+                event.path = absolute.toString();
+                event.bytes = bytes;
+                event.records = steps[1];
+                event.chunks = steps[0];
+                event.success = success;
+                event.commit();
+            }
+            if (success) {
+                LOG.info("Backup written: " + absolute + " (" + steps[1] + " pages, " + bytes / 1024
+                        + " KiB, " + steps[0] + " steps, " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms)");
+            }
+        }
+        return absolute;
+    }
+
+    /**
+     * @return Path file backup baru bertimestamp, misalnya backups/agenda-20250101-120000.db
+     */
+    public Path newBackupFile() {
+        return backupDir.resolve(baseName + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".db");
+    }
+
+    /**
+     * @return Nama file database tanpa ekstensi .db (awalan nama file backup),
+     *         sehingga beberapa database (misalnya shard) bisa berbagi folder backup
+     */
+    public String getBaseName() {
+        return baseName;
+    }
+
+    /**
+     * @return File database sumber
+     */
+    public Path getDatabaseFile() {
+        return Paths.get(config.getPath()).toAbsolutePath();
+    }
+
+    /**
+     * @return Folder backup
+     */
+    public Path getBackupDir() {
+        return backupDir;
+    }
+
+    // ========== RESTORE SUPPORT ==========
+
+    /**
+     * Pastikan file adalah database agenda yang utuh sebelum dipakai untuk restore
+     * @param file File backup
+     * @throws SQLException jika file rusak atau bukan database agenda
+     */
+    public static void verify(Path file) throws SQLException {
+        if (!Files.isRegularFile(file)) {
+            throw new SQLException("Backup file not found: " + file);
+        }
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA quick_check")) {
+                String result = rs.next() ? rs.getString(1) : "no result";
+                if (!"ok".equalsIgnoreCase(result)) {
+                    throw new SQLException("Backup file is corrupt: " + result);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'agenda'")) {
+                if (!rs.next()) {
+                    throw new SQLException("Not an agenda database: " + file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hentikan thread backup dan tunggu backup yang sedang berjalan selesai
+     * (jeda antar langkah dilewati setelah interrupt)
+     * @param timeoutMillis Batas waktu menunggu
+     * @return true jika thread backup sudah berhenti
+     */
+    public boolean shutdown(long timeoutMillis) {
+        executor.shutdownNow();
+        try {
+            return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    /**
+     * Jeda di antara langkah backup agar query foreground tidak ikut melambat
+     */
+    private void pause() {
+        if (pauseMillis > 0) {
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,744 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import util.Log;
+
+/**
+ *
+ * Backup otomatis berkala dengan rantai snapshot: satu snapshot penuh (file database
+ * dari BackupManager, dikompresi gzip), lalu snapshot incremental yang hanya berisi
+ * baris yang berubah sejak snapshot sebelumnya (JSON gzip: upserts + deletes)
+ * Perubahan dikumpulkan dari event AgendaChangeListener; agendaReloaded (hapus semua,
+ * restore) memaksa snapshot penuh berikutnya. Jika ada perubahan, snapshot penuh baru juga
+ * dibuat saat hari berganti atau setelah maxIncrementals snapshot incremental; tanpa
+ * perubahan tidak ada file baru. Nama file diawali nama database (agenda-full-*,
+ * agenda-2024-full-*), sehingga beberapa database bisa berbagi folder backup
+ * Retensi: snapshot penuh terbaru per hari untuk keepDaily hari terakhir dan per minggu
+ * untuk keepWeekly minggu terakhir; snapshot lain beserta incremental-nya dihapus
+ * Durasi dan ukuran dicatat di metrics (backup.full, backup.incremental, backup.bytesRaw,
+ * backup.bytesWritten)
+ *
+ * Konfigurasi (system properties):
+ * agenda.backup.schedule.enabled (default true), agenda.backup.schedule.initialDelayMs (default 60000),
+ * agenda.backup.schedule.intervalMs (default 900000), agenda.backup.schedule.maxIncrementals (default 96),
+ * agenda.backup.keepDaily (default 7), agenda.backup.keepWeekly (default 4)
+ *
+ * @author slozoy
+ */
+public class BackupScheduler implements AgendaChangeListener {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(BackupScheduler.class);
+    private static final String FULL_MARK = "-full-";
+    private static final String FULL_SUFFIX = ".db.gz";
+    private static final String INCREMENTAL_MARK = "-incr-";
+    private static final String INCREMENTAL_SUFFIX = ".json.gz";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // ========== ATTRIBUTES ==========
+    private final BackupManager backups;
+    private final QueryMetrics metrics;
+    private final Path dir;
+    private final String fullPrefix;
+    private final String incrementalPrefix;
+    private final long initialDelayMillis;
+    private final long intervalMillis;
+    private final int maxIncrementals;
+    private final int keepDaily;
+    private final int keepWeekly;
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+    private final ReentrantLock passLock = new ReentrantLock();
+    private ScheduledFuture<?> ticker;
+    private volatile boolean running = true;
+    private ChangeSet pending = new ChangeSet();
+    private boolean fullRequired = true;
+    private Path chainBase;
+    private int chainLength;
+
+    /**
+     * Constructor, konfigurasi dari system properties
+     * @param backups BackupManager untuk snapshot penuh (folder yang sama dipakai)
+     * @param metrics Tujuan metrics snapshot
+     */
+    public BackupScheduler(BackupManager backups, QueryMetrics metrics) {
+        this(backups, metrics, null);
+    }
+
+    /**
+     * Constructor dengan executor bersama (misalnya satu thread untuk semua shard)
+     * @param backups BackupManager untuk snapshot penuh (folder yang sama dipakai)
+     * @param metrics Tujuan metrics snapshot
+     * @param executor Executor bersama yang tidak dihentikan saat shutdown,
+     *                 atau null untuk thread sendiri
+     */
+    public BackupScheduler(BackupManager backups, QueryMetrics metrics, ScheduledExecutorService executor) {
+        this.backups = backups;
+        this.metrics = metrics;
+        this.dir = backups.getBackupDir();
+        this.fullPrefix = backups.getBaseName() + FULL_MARK;
+        this.incrementalPrefix = backups.getBaseName() + INCREMENTAL_MARK;
+        this.initialDelayMillis = Long.getLong("agenda.backup.schedule.initialDelayMs", 60_000);
+        this.intervalMillis = Math.max(1, Long.getLong("agenda.backup.schedule.intervalMs", 900_000));
+        this.maxIncrementals = Integer.getInteger("agenda.backup.schedule.maxIncrementals", 96);
+        this.keepDaily = Math.max(1, Integer.getInteger("agenda.backup.keepDaily", 7));
+        this.keepWeekly = Math.max(0, Integer.getInteger("agenda.backup.keepWeekly", 4));
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-snapshot");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * @return true jika backup otomatis diaktifkan (agenda.backup.schedule.enabled)
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("agenda.backup.schedule.enabled", "true"));
+    }
+
+    // ========== LIFECYCLE ==========
+
+    /**
+     * Mulai snapshot berkala
+     * Rantai terakhir di folder backup dilanjutkan jika database tidak berubah sejak
+     * snapshot terakhirnya (misalnya shard tahun lalu); selain itu snapshot pertama penuh
+     */
+    public void start() {
+        try {
+            resumeChain();
+        } catch (IOException e) {
+            LOG.warn("Cannot read backup folder " + dir + ": " + e.getMessage());
+        }
+        synchronized (this) {
+            ticker = executor.scheduleWithFixedDelay(this::tick, initialDelayMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Hentikan scheduler; snapshot yang sedang ditulis dibiarkan selesai sampai batas waktu
+     * @param timeoutMillis Batas waktu menunggu
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        if (!ownsExecutor) {
+            synchronized (this) {
+                if (ticker != null) {
+                    ticker.cancel(false);
+                }
+            }
+            // Executor bersama tetap jalan: cukup tunggu snapshot yang sedang ditulis
+            try {
+                if (passLock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    passLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== CHANGE TRACKING ==========
+
+    // Dipanggil di thread writer setelah commit, jadi urutan perubahan sama dengan database
+
+    @Override
+    public synchronized void agendaInserted(Agenda agenda) {
+        pending.upsert(agenda);
+    }
+
+    @Override
+    public synchronized void agendaUpdated(Agenda agenda) {
+        pending.upsert(agenda);
+    }
+
+    @Override
+    public synchronized void agendaDeleted(int id) {
+        pending.delete(id);
+    }
+
+    @Override
+    public synchronized void agendaReloaded() {
+        pending = new ChangeSet();
+        fullRequired = true;
+    }
+
+    // ========== SNAPSHOT ==========
+
+    private void tick() {
+        passLock.lock();
+        try {
+            if (running) {
+                snapshot();
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            LOG.warn("Scheduled backup failed: " + e.getMessage());
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    /**
+     * Buat snapshot penuh atau incremental sesuai kondisi rantai, lalu terapkan retensi
+     * Snapshot incremental dilewati jika tidak ada perubahan
+     * @throws SQLException jika backup database gagal
+     * @throws IOException jika file snapshot gagal ditulis
+     */
+    public void snapshot() throws SQLException, IOException {
+        LocalDateTime now = LocalDateTime.now();
+        ChangeSet changes;
+        boolean full;
+        synchronized (this) {
+            if (!fullRequired && chainBase != null && pending.isEmpty()) {
+                return; // Tidak ada perubahan sejak snapshot terakhir
+            }
+            full = fullRequired || chainBase == null || chainLength >= maxIncrementals
+                    || !timestampOf(chainBase).toLocalDate().equals(now.toLocalDate());
+            // Diambil sebelum snapshot dimulai: perubahan sesudahnya masuk snapshot berikutnya
+            // (bisa tercatat dua kali, tetapi upsert/delete aman diulang)
+            changes = pending;
+            pending = new ChangeSet();
+            fullRequired = false;
+        }
+
+        try {
+            if (full) {
+                Path file = writeFull(now);
+                synchronized (this) {
+                    chainBase = file;
+                    chainLength = 0;
+                }
+            } else {
+                writeIncremental(now, changes);
+                synchronized (this) {
+                    chainLength++;
+                }
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            synchronized (this) {
+                if (full) {
+                    fullRequired = true;
+                } else {
+                    changes.mergeNewer(pending);
+                    pending = changes;
+                }
+            }
+            throw e;
+        }
+        applyRetention();
+    }
+
+    /**
+     * Snapshot penuh: backup online ke file sementara lalu kompresi gzip
+     */
+    private Path writeFull(LocalDateTime now) throws SQLException, IOException {
+        long start = System.nanoTime();
+        Path target = dir.resolve(fullPrefix + now.format(FILE_TIMESTAMP) + FULL_SUFFIX);
+        Path raw = dir.resolve(fullPrefix + now.format(FILE_TIMESTAMP) + ".tmp");
+        boolean success = false;
+        long rawBytes = 0;
+        long written = 0;
+        try {
+            backups.backup(raw);
+            rawBytes = Files.size(raw);
+            written = writeCompressed(target, out -> {
+                try (FileChannel in = FileChannel.open(raw, StandardOpenOption.READ)) {
+                    WritableByteChannel channel = Channels.newChannel(out);
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, channel);
+                    }
+                }
+            });
+            success = true;
+        } finally {
+            Files.deleteIfExists(raw);
+            recordSnapshot("backup.full", start, 0, rawBytes, written, success);
+        }
+        LOG.info("Full snapshot written: " + target.toAbsolutePath() + " (" + rawBytes / 1024
+                + " KiB -> " + written / 1024 + " KiB)");
+        return target;
+    }
+
+    /**
+     * Snapshot incremental: baris yang ditambah/diubah dan ID yang dihapus sejak snapshot sebelumnya
+     */
+    private void writeIncremental(LocalDateTime now, ChangeSet changes) throws IOException {
+        long start = System.nanoTime();
+        Path target = dir.resolve(incrementalPrefix + now.format(FILE_TIMESTAMP) + INCREMENTAL_SUFFIX);
+        Path base = chainBase;
+        long[] rawBytes = new long[1];
+        boolean success = false;
+        long written = 0;
+        try {
+            written = writeCompressed(target, out -> {
+                Writer writer = new OutputStreamWriter(new CountingStream(out, rawBytes), StandardCharsets.UTF_8);
+                JsonWriter json = new JsonWriter(writer);
+                json.beginObject();
+                json.name("base").value(base.getFileName().toString());
+                json.name("created").value(now.format(DATE_TIME));
+                json.name("upserts").beginArray();
+                for (Agenda agenda : changes.upserts.values()) {
+                    json.beginObject();
+                    json.name("id").value(agenda.getId());
+                    json.name("judul").value(agenda.getJudul());
+                    json.name("deskripsi").value(agenda.getDeskripsi());
+                    json.name("tanggal_waktu").value(agenda.getTanggalWaktu().format(DATE_TIME));
+                    json.name("prioritas").value(agenda.getPrioritas());
+                    json.endObject();
+                }
+                json.endArray();
+                json.name("deletes").beginArray();
+                for (int id : changes.deletes) {
+                    json.value(id);
+                }
+                json.endArray();
+                json.endObject();
+                json.flush();
+            });
+            success = true;
+        } finally {
+            recordSnapshot("backup.incremental", start, changes.size(), rawBytes[0], written, success);
+        }
+        LOG.info("Incremental snapshot written: " + target.toAbsolutePath() + " ("
+                + changes.upserts.size() + " upsert(s), " + changes.deletes.size() + " delete(s), "
+                + written + " bytes)");
+    }
+
+    // ========== RETENTION ==========
+
+    /**
+     * Simpan snapshot penuh terbaru per hari (keepDaily hari) dan per minggu (keepWeekly minggu),
+     * ditambah rantai yang sedang aktif; snapshot lain dan incremental-nya dihapus
+     * @throws IOException jika folder backup tidak bisa dibaca
+     */
+    public void applyRetention() throws IOException {
+        List<Path> fulls = list(fullPrefix, FULL_SUFFIX);
+        Map<LocalDate, Path> daily = new LinkedHashMap<>();
+        Map<LocalDate, Path> weekly = new LinkedHashMap<>();
+        for (int i = fulls.size() - 1; i >= 0; i--) { // Terbaru lebih dulu
+            Path full = fulls.get(i);
+            LocalDate date = timestampOf(full).toLocalDate();
+            if (daily.size() < keepDaily || daily.containsKey(date)) {
+                daily.putIfAbsent(date, full);
+            }
+            LocalDate week = date.with(DayOfWeek.MONDAY);
+            if (weekly.size() < keepWeekly || weekly.containsKey(week)) {
+                weekly.putIfAbsent(week, full);
+            }
+        }
+        Set<Path> keep = new HashSet<>(daily.values());
+        keep.addAll(weekly.values());
+        synchronized (this) {
+            if (chainBase != null) {
+                keep.add(chainBase);
+            }
+        }
+
+        for (Path full : fulls) {
+            if (!keep.contains(full)) {
+                for (Path incremental : chainOf(full)) {
+                    Files.deleteIfExists(incremental);
+                }
+                Files.deleteIfExists(full);
+                LOG.debug(() -> "Retention removed snapshot " + full.getFileName());
+            }
+        }
+    }
+
+    // ========== RESTORE SUPPORT ==========
+
+    /**
+     * Bangun file database dari snapshot penuh dan semua incremental di rantainya
+     * Hasilnya bisa dipakai untuk DatabaseHelper.restoreFrom
+     * @param fullSnapshot File agenda-full-*.db.gz
+     * @param target File database tujuan (ditimpa)
+     * @throws IOException jika snapshot tidak bisa dibaca
+     * @throws SQLException jika incremental gagal diterapkan
+     */
+    public static void materialize(Path fullSnapshot, Path target) throws IOException, SQLException {
+        try (InputStream in = new GZIPInputStream(Channels.newInputStream(
+                FileChannel.open(fullSnapshot, StandardOpenOption.READ)), BUFFER_SIZE)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        List<Path> chain = chainOf(fullSnapshot);
+        if (chain.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + target.toAbsolutePath())) {
+            // Perubahan tidak mencatat tabel asal (agenda atau agenda_archive): delete berlaku
+            // untuk kedua tabel, agenda arsip yang diubah ditulis ke tabel agenda lalu salinan
+            // lamanya di arsip dibuang (diarsipkan lagi oleh maintenance setelah restore)
+            boolean archive = hasTable(conn, "agenda_archive");
+            try (PreparedStatement upsert = conn.prepareStatement("INSERT OR REPLACE INTO agenda "
+                         + "(id, judul, deskripsi, tanggal_waktu, prioritas) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement delete = conn.prepareStatement("DELETE FROM agenda WHERE id = ?");
+                 PreparedStatement archiveDelete = archive
+                         ? conn.prepareStatement("DELETE FROM agenda_archive WHERE id = ?") : null;
+                 Statement stmt = conn.createStatement()) {
+                conn.setAutoCommit(false);
+                for (Path incremental : chain) {
+                    apply(incremental, upsert, delete, archiveDelete);
+                }
+                if (archive) {
+                    stmt.executeUpdate("DELETE FROM agenda_archive WHERE id IN (SELECT id FROM agenda)");
+                }
+                conn.commit();
+            }
+        }
+        LOG.info("Materialized " + fullSnapshot.getFileName() + " + " + chain.size()
+                + " incremental snapshot(s) into " + target.toAbsolutePath());
+    }
+
+    private static void apply(Path incremental, PreparedStatement upsert, PreparedStatement delete,
+                              PreparedStatement archiveDelete) throws IOException, SQLException {
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Channels.newInputStream(
+                FileChannel.open(incremental, StandardOpenOption.READ)), BUFFER_SIZE), StandardCharsets.UTF_8);
+             JsonReader json = new JsonReader(reader)) {
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "upserts":
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            readUpsert(json, upsert);
+                            upsert.executeUpdate();
+                        }
+                        json.endArray();
+                        break;
+                    case "deletes":
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            int id = json.nextInt();
+                            delete.setInt(1, id);
+                            delete.executeUpdate();
+                            if (archiveDelete != null) {
+                                archiveDelete.setInt(1, id);
+                                archiveDelete.executeUpdate();
+                            }
+                        }
+                        json.endArray();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+    }
+
+    private static boolean hasTable(Connection conn, String table) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void readUpsert(JsonReader json, PreparedStatement upsert) throws IOException, SQLException {
+        upsert.clearParameters();
+        upsert.setNull(3, Types.VARCHAR); // deskripsi dan prioritas boleh kosong
+        upsert.setNull(5, Types.VARCHAR);
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    upsert.setInt(1, json.nextInt());
+                    break;
+                case "judul":
+                    upsert.setString(2, json.nextString());
+                    break;
+                case "deskripsi":
+                    upsert.setString(3, json.nextString());
+                    break;
+                case "tanggal_waktu":
+                    upsert.setString(4, json.nextString());
+                    break;
+                case "prioritas":
+                    upsert.setString(5, json.nextString());
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    // ========== HELPER METHODS ==========
+
+    /**
+     * Tulis file gzip lewat FileChannel ke .partial, fsync, lalu rename atomik
+     * @return Ukuran file terkompresi (byte)
+     */
+    private static long writeCompressed(Path target, StreamWriter content) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+        boolean success = false;
+        try {
+            try (FileChannel file = FileChannel.open(partial, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(file), BUFFER_SIZE)) {
+                content.write(gzip);
+                gzip.finish();
+                file.force(true);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            success = true;
+            return Files.size(target);
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    private void recordSnapshot(String operation, long start, long rows, long rawBytes, long written,
+                                boolean success) {
+        metrics.record(operation, System.nanoTime() - start, rows, success);
+        if (success) {
+            metrics.add("backup.bytesRaw", rawBytes);
+            metrics.add("backup.bytesWritten", written);
+        }
+    }
+
+    /**
+     * File snapshot di folder backup, terurut dari yang terlama (timestamp di nama file)
+     */
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        return list(dir, prefix, suffix);
+    }
+
+    /**
+     * Lanjutkan rantai terakhir jika file database (dan WAL) tidak diubah setelah
+     * snapshot terakhir di rantai itu dibuat; perubahan sebelumnya sudah tercakup
+     */
+    private void resumeChain() throws IOException {
+        List<Path> fulls = list(fullPrefix, FULL_SUFFIX);
+        if (fulls.isEmpty()) {
+            return;
+        }
+        Path base = fulls.get(fulls.size() - 1);
+        List<Path> chain = chainOf(base);
+        LocalDateTime latest = timestampOf(chain.isEmpty() ? base : chain.get(chain.size() - 1));
+        Path dbFile = backups.getDatabaseFile();
+        Path walFile = dbFile.resolveSibling(dbFile.getFileName() + "-wal");
+        long modified = Math.max(lastModified(dbFile), lastModified(walFile));
+        // Timestamp nama file dibulatkan ke detik, beri selisih satu detik
+        if (latest.minusSeconds(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() > modified) {
+            synchronized (this) {
+                chainBase = base;
+                chainLength = chain.size();
+                fullRequired = false;
+            }
+            LOG.debug(() -> "Resuming snapshot chain " + base.getFileName() + " (" + chain.size()
+                    + " incremental)");
+        }
+    }
+
+    private static long lastModified(Path file) throws IOException {
+        return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+    }
+
+    private static List<Path> list(Path dir, String prefix, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                if (timestampOf(file) != null) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()));
+        return files;
+    }
+
+    /**
+     * Incremental milik snapshot penuh: yang dibuat setelahnya dan sebelum snapshot penuh berikutnya
+     */
+    private static List<Path> chainOf(Path full) throws IOException {
+        Path dir = full.toAbsolutePath().getParent();
+        String name = full.getFileName().toString();
+        String baseName = name.substring(0, name.lastIndexOf(FULL_MARK));
+        LocalDateTime from = timestampOf(full);
+        LocalDateTime until = null;
+        for (Path other : list(dir, baseName + FULL_MARK, FULL_SUFFIX)) {
+            LocalDateTime time = timestampOf(other);
+            if (time.isAfter(from) && (until == null || time.isBefore(until))) {
+                until = time;
+            }
+        }
+        List<Path> chain = new ArrayList<>();
+        for (Path incremental : list(dir, baseName + INCREMENTAL_MARK, INCREMENTAL_SUFFIX)) {
+            LocalDateTime time = timestampOf(incremental);
+            if (!time.isBefore(from) && (until == null || time.isBefore(until))) {
+                chain.add(incremental);
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * @return Timestamp dari nama file snapshot, atau null jika nama tidak dikenali
+     */
+    private static LocalDateTime timestampOf(Path file) {
+        String name = file.getFileName().toString();
+        int mark = Math.max(name.lastIndexOf(FULL_MARK), name.lastIndexOf(INCREMENTAL_MARK));
+        int start = mark < 0 ? -1 : mark + FULL_MARK.length();
+        if (start < 0 || name.length() < start + 15) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(name.substring(start, start + 15), FILE_TIMESTAMP);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Isi file snapshot yang ditulis ke stream gzip
+     */
+    private interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Perubahan sejak snapshot terakhir, satu entri per ID (perubahan terakhir menang)
+     */
+    private static final class ChangeSet {
+        private final Map<Integer, Agenda> upserts = new LinkedHashMap<>();
+        private final Set<Integer> deletes = new LinkedHashSet<>();
+
+        void upsert(Agenda agenda) {
+            deletes.remove(agenda.getId());
+            upserts.put(agenda.getId(), agenda);
+        }
+
+        void delete(int id) {
+            upserts.remove(id);
+            deletes.add(id);
+        }
+
+        /**
+         * Gabungkan perubahan yang lebih baru (dipakai saat snapshot gagal ditulis)
+         */
+        void mergeNewer(ChangeSet newer) {
+            for (Agenda agenda : newer.upserts.values()) {
+                upsert(agenda);
+            }
+            for (int id : newer.deletes) {
+                delete(id);
+            }
+        }
+
+        boolean isEmpty() {
+            return upserts.isEmpty() && deletes.isEmpty();
+        }
+
+        int size() {
+            return upserts.size() + deletes.size();
+        }
+    }
+
+    /**
+     * OutputStream yang menghitung byte sebelum kompresi
+     */
+    private static final class CountingStream extends FilterOutputStream {
+        private final long[] bytes;
+
+        CountingStream(OutputStream out, long[] bytes) {
+            super(out);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes[0]++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes[0] += len;
+        }
+    }
+}
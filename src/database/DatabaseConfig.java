@@ -0,0 +1,258 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+import util.Log;
+
+/**
+ *
+ * Konfigurasi lokasi database dan profil performa SQLite (PRAGMA)
+ * Sumber (prioritas naik): nilai preset profil, file agenda.properties
+ * (atau path dari -Dagenda.config), lalu system properties
+ *
+ * Key: agenda.db.path, agenda.db.profile (durable | fast | bulk-load),
+ * agenda.db.pageSize, agenda.db.journalMode, agenda.db.synchronous,
+ * agenda.db.cacheSize (KiB), agenda.db.mmapSize (byte), agenda.db.tempStore,
+ * agenda.db.autoVacuum, agenda.db.busyTimeoutMs
+ *
+ * @author slozoy
+ */
+public class DatabaseConfig {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(DatabaseConfig.class);
+    private static final String PREFIX = "agenda.db.";
+
+    // ========== ATTRIBUTES ==========
+    private final Properties properties;
+    private final String path;
+    private final Profile profile;
+    private final int pageSize;
+    private final String journalMode;
+    private final String synchronous;
+    private final long cacheSizeKib;
+    private final long mmapSize;
+    private final String tempStore;
+    private final String autoVacuum;
+    private final int busyTimeoutMillis;
+
+    /**
+     * Constructor dari properties (nilai yang tidak diisi diambil dari preset profil)
+     * @param properties Properties dengan key agenda.db.*
+     * @throws IllegalArgumentException jika profil atau nilai PRAGMA tidak valid
+     */
+    public DatabaseConfig(Properties properties) {
+        this.properties = properties;
+        this.path = properties.getProperty(PREFIX + "path", "agenda.db");
+        this.profile = Profile.of(properties.getProperty(PREFIX + "profile", "durable"));
+        this.pageSize = Integer.parseInt(value("pageSize", Integer.toString(profile.pageSize)));
+        this.journalMode = oneOf("journalMode", profile.journalMode,
+                "DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+        this.synchronous = oneOf("synchronous", profile.synchronous, "OFF", "NORMAL", "FULL", "EXTRA");
+        this.cacheSizeKib = Long.parseLong(value("cacheSize", Long.toString(profile.cacheSizeKib)));
+        this.mmapSize = Long.parseLong(value("mmapSize", Long.toString(profile.mmapSize)));
+        this.tempStore = oneOf("tempStore", profile.tempStore, "DEFAULT", "FILE", "MEMORY");
+        this.autoVacuum = oneOf("autoVacuum", "INCREMENTAL", "NONE", "FULL", "INCREMENTAL");
+        this.busyTimeoutMillis = Integer.parseInt(value("busyTimeoutMs", "5000"));
+    }
+
+    /**
+     * Muat konfigurasi dari agenda.properties (jika ada) dan system properties
+     * @return DatabaseConfig
+     */
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        Path file = Paths.get(System.getProperty("agenda.config", "agenda.properties"));
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                LOG.warn("Failed to read " + file.toAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(PREFIX)) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
+        return new DatabaseConfig(properties);
+    }
+
+    /**
+     * Salinan konfigurasi dengan lokasi database lain
+     * @param path Path file database, atau ":memory:"
+     * @return DatabaseConfig baru
+     */
+    public DatabaseConfig withPath(String path) {
+        return with("path", path);
+    }
+
+    /**
+     * Salinan konfigurasi dengan profil lain (nilai eksplisit tetap dipakai)
+     * @param profile durable, fast atau bulk-load
+     * @return DatabaseConfig baru
+     */
+    public DatabaseConfig withProfile(String profile) {
+        return with("profile", profile);
+    }
+
+    // ========== APPLY ==========
+
+    /**
+     * @return JDBC URL SQLite untuk path database
+     */
+    public String getJdbcUrl() {
+        return "jdbc:sqlite:" + path;
+    }
+
+    /**
+     * Terapkan PRAGMA ke connection yang baru dibuka
+     * page_size dan auto_vacuum hanya berpengaruh pada database baru
+     * (sebelum tabel pertama dibuat) atau setelah VACUUM penuh
+     * @param connection Connection SQLite
+     * @throws SQLException jika PRAGMA gagal
+     */
+    public void applyTo(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout=" + busyTimeoutMillis);
+            stmt.execute("PRAGMA page_size=" + pageSize);
+            stmt.execute("PRAGMA auto_vacuum=" + autoVacuum);
+            String effectiveJournal = journalMode;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode=" + journalMode)) {
+                if (rs.next()) {
+                    effectiveJournal = rs.getString(1);
+                }
+            }
+            stmt.execute("PRAGMA synchronous=" + synchronous);
+            stmt.execute("PRAGMA cache_size=" + (-cacheSizeKib)); // Negatif = KiB, bukan jumlah page
+            stmt.execute("PRAGMA mmap_size=" + mmapSize);
+            stmt.execute("PRAGMA temp_store=" + tempStore);
+            if (!effectiveJournal.equalsIgnoreCase(journalMode)) {
+                LOG.warn("journal_mode=" + journalMode + " not applied, SQLite uses " + effectiveJournal);
+            }
+        }
+    }
+
+    // ========== GETTERS ==========
+
+    public String getPath() {
+        return path;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public String getAutoVacuum() {
+        return autoVacuum;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseConfig{path=" + path + ", profile=" + profile.getName()
+                + ", page_size=" + pageSize + ", journal_mode=" + journalMode
+                + ", synchronous=" + synchronous + ", cache_size=" + cacheSizeKib + "KiB"
+                + ", mmap_size=" + mmapSize + ", temp_store=" + tempStore
+                + ", auto_vacuum=" + autoVacuum
+                + ", busy_timeout=" + busyTimeoutMillis + "ms}";
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private DatabaseConfig with(String key, String value) {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        copy.setProperty(PREFIX + key, value);
+        return new DatabaseConfig(copy);
+    }
+
+    private String value(String key, String defaultValue) {
+        return properties.getProperty(PREFIX + key, defaultValue).trim();
+    }
+
+    /**
+     * Nilai enum PRAGMA; divalidasi karena disisipkan langsung ke SQL
+     */
+    private String oneOf(String key, String defaultValue, String... allowed) {
+        String value = value(key, defaultValue).toUpperCase(Locale.ROOT);
+        for (String option : allowed) {
+            if (option.equals(value)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid " + PREFIX + key + ": " + value);
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Preset PRAGMA per jenis deployment
+     * durable: WAL + synchronous FULL, tidak ada commit yang hilang saat listrik padam
+     * fast: WAL + synchronous NORMAL (commit terakhir bisa hilang saat crash OS, database
+     *       tetap konsisten), cache 64 MB, mmap 256 MB, temp di memori
+     * bulk-load: journal di memori dan synchronous OFF untuk import/seeding sekali jalan;
+     *            database bisa rusak jika proses mati di tengah transaksi
+     */
+    public enum Profile {
+        DURABLE("durable", 4096, "WAL", "FULL", 8 * 1024, 0, "DEFAULT"),
+        FAST("fast", 4096, "WAL", "NORMAL", 64 * 1024, 256L * 1024 * 1024, "MEMORY"),
+        BULK_LOAD("bulk-load", 4096, "MEMORY", "OFF", 256 * 1024, 256L * 1024 * 1024, "MEMORY");
+
+        private final String name;
+        private final int pageSize;
+        private final String journalMode;
+        private final String synchronous;
+        private final long cacheSizeKib;
+        private final long mmapSize;
+        private final String tempStore;
+
+        Profile(String name, int pageSize, String journalMode, String synchronous,
+                long cacheSizeKib, long mmapSize, String tempStore) {
+            this.name = name;
+            this.pageSize = pageSize;
+            this.journalMode = journalMode;
+            this.synchronous = synchronous;
+            this.cacheSizeKib = cacheSizeKib;
+            this.mmapSize = mmapSize;
+            this.tempStore = tempStore;
+        }
+
+        /**
+         * @return Nama profil di file konfigurasi
+         */
+        public String getName() {
+            return name;
+        }
+
+        static Profile of(String name) {
+            for (Profile profile : values()) {
+                if (profile.name.equalsIgnoreCase(name.trim())) {
+                    return profile;
+                }
+            }
+            throw new IllegalArgumentException("Unknown " + PREFIX + "profile: " + name);
+        }
+    }
+}
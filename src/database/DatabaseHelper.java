@@ -5,11 +5,26 @@
 package database;
 
 import model.Agenda;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+import util.Log;
 
 
 /**
@@ -19,20 +34,73 @@ import java.util.List;
  * 
  * @author slozoy
  */
-public class DatabaseHelper {
+public class DatabaseHelper implements AgendaRepository {
     
     // ========== CONSTANTS ==========
-    private static final String DB_URL = "jdbc:sqlite:agenda.db";
     private static final String TABLE_NAME = "agenda";
+    private static final String ARCHIVE_TABLE = "agenda_archive";
+    private static final String COLUMNS = "id, judul, deskripsi, tanggal_waktu, prioritas";
+    private static final String ALL_PARTITIONS = "(SELECT " + COLUMNS + " FROM " + TABLE_NAME
+            + " UNION ALL SELECT " + COLUMNS + " FROM " + ARCHIVE_TABLE + ")";
+    private static final Log LOG = Log.get(DatabaseHelper.class);
+    // Batas waktu menunggu hasil writer (agenda.writer.awaitTimeoutMs, default 60 detik)
+    private static final long WRITE_TIMEOUT_MILLIS = Long.getLong("agenda.writer.awaitTimeoutMs", 60_000);
     
     // ========== SINGLETON PATTERN ==========
     private static DatabaseHelper instance;
+    private final DatabaseConfig config;
+    private final String dbUrl;
     private Connection connection;
+    private volatile StatementCache statements;
+    private StatementCache writerStatements;
+    // Read lock: pembacaan lewat connection/statements dan submit ke writer;
+    // write lock: restore (connection ditutup dan dibuka kembali)
+    private final ReentrantReadWriteLock connectionLock = new ReentrantReadWriteLock();
+    
+    // ========== SEARCH INDEX ==========
+    private final AgendaSearchIndex searchIndex = new AgendaSearchIndex();
+    private final FuzzySearchIndex fuzzyIndex;
+    private final SearchResultCache searchCache;
+    
+    // ========== CHANGE LISTENERS ==========
+    private final List<AgendaChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    
+    // ========== METRICS ==========
+    private final QueryMetrics metrics = new QueryMetrics();
+    private SlowQueryLog slowQueryLog;
+    private boolean slowQueryLogHeld;
+    
+    // ========== WRITER ==========
+    private volatile AgendaWriter writer;
+    private final Object writerLock = new Object();
+    private boolean writerClosed;
+    
+    // ========== MAINTENANCE ==========
+    // Executor bersama untuk maintenance dan snapshot shard (null: thread sendiri)
+    private final ScheduledExecutorService sharedExecutor;
+    private MaintenanceScheduler maintenance;
+    private BackupManager backups;
+    private BackupScheduler snapshots;
+    
+    // ========== ARCHIVE ==========
+    // agenda.archive.olderThanDays (default 365, 0 = tidak otomatis), agenda.archive.batchSize (default 500)
+    private final int archiveAfterDays = Integer.getInteger("agenda.archive.olderThanDays", 365);
+    private final int archiveBatchSize = Math.max(1, Integer.getInteger("agenda.archive.batchSize", 500));
     
     /**
      * Constructor private untuk singleton pattern
+     * @param config Lokasi database dan profil PRAGMA
      */
-    private DatabaseHelper() {
+    private DatabaseHelper(DatabaseConfig config) {
+        this(config, null);
+    }
+    
+    private DatabaseHelper(DatabaseConfig config, ScheduledExecutorService sharedExecutor) {
+        this.config = config;
+        this.dbUrl = config.getJdbcUrl();
+        this.sharedExecutor = sharedExecutor;
+        this.fuzzyIndex = sharedExecutor == null ? new FuzzySearchIndex() : new FuzzySearchIndex(false);
+        this.searchCache = new SearchResultCache(metrics);
         initDatabase();
     }
     
@@ -42,38 +110,124 @@ public class DatabaseHelper {
      */
     public static DatabaseHelper getInstance() {
         if (instance == null) {
-            instance = new DatabaseHelper();
+            instance = new DatabaseHelper(DatabaseConfig.load());
+            instance.metrics.registerMBean("database:type=DatabaseHelper");
         }
         return instance;
     }
     
+    /**
+     * Membuat DatabaseHelper terpisah untuk database lain (benchmark, tools)
+     * Instance ini bukan singleton; pemanggil wajib memanggil closeConnection()
+     * @param dbUrl JDBC URL, misalnya "jdbc:sqlite:/tmp/bench.db"
+     * @return DatabaseHelper baru
+     */
+    public static DatabaseHelper forUrl(String dbUrl) {
+        return forConfig(DatabaseConfig.load().withPath(dbUrl.replaceFirst("^jdbc:sqlite:", "")));
+    }
+    
+    /**
+     * Membuat DatabaseHelper terpisah dengan konfigurasi tertentu
+     * (misalnya profil bulk-load untuk seeding)
+     * Instance ini bukan singleton; pemanggil wajib memanggil closeConnection()
+     * @param config Lokasi database dan profil PRAGMA
+     * @return DatabaseHelper baru
+     */
+    public static DatabaseHelper forConfig(DatabaseConfig config) {
+        return new DatabaseHelper(config);
+    }
+    
+    /**
+     * Membuat DatabaseHelper untuk satu shard (lihat ShardedAgendaRepository):
+     * maintenance dan snapshot memakai executor bersama, index fuzzy nonaktif
+     * (repository memakai index gabungan), dan writer beserta connection-nya
+     * baru dibuat saat operasi tulis pertama (virtual thread)
+     * @param config Lokasi file shard dan profil PRAGMA
+     * @param sharedExecutor Executor bersama semua shard
+     * @return DatabaseHelper baru; pemanggil wajib memanggil closeConnection()
+     */
+    static DatabaseHelper forShard(DatabaseConfig config, ScheduledExecutorService sharedExecutor) {
+        return new DatabaseHelper(config, sharedExecutor);
+    }
+    
     // ========== DATABASE CONNECTION ==========
     
     /**
      * Inisialisasi database dan membuat tabel jika belum ada
      */
     private void initDatabase() {
+        if (!slowQueryLogHeld) {
+            slowQueryLog = SlowQueryLog.acquire(); // Dilepas di closeConnection
+            slowQueryLogHeld = true;
+        }
         try {
             // Load SQLite JDBC Driver
             Class.forName("org.sqlite.JDBC");
             
             // Create connection
-            connection = DriverManager.getConnection(DB_URL);
+            connection = DriverManager.getConnection(dbUrl);
+            config.applyTo(connection);
+            statements = new StatementCache(connection, metrics);
             
             // Create table if not exists
             createTableIfNotExists();
             
-            System.out.println("Database connected successfully!");
+            // Single writer dengan connection sendiri
+            // (dengan journal_mode WAL pembaca tidak diblokir penulis)
+            // Shard: dibuat saat tulis pertama, shard lama yang hanya dibaca tidak menahan thread
+            synchronized (writerLock) {
+                writerClosed = false;
+                writer = sharedExecutor == null ? createWriter() : null;
+            }
+            
+            // ANALYZE / incremental vacuum saat idle (database file saja)
+            if (MaintenanceScheduler.isEnabled() && !dbUrl.contains(":memory:")) {
+                maintenance = new MaintenanceScheduler(config, metrics, sharedExecutor);
+                if (archiveAfterDays > 0) {
+                    maintenance.setIdleTask(this::archiveOldAgenda);
+                }
+                maintenance.start();
+            }
+            // Backup online lewat SQLite backup API (database file saja)
+            if (!dbUrl.contains(":memory:")) {
+                backups = new BackupManager(config, metrics);
+                if (BackupScheduler.isEnabled()) {
+                    snapshots = new BackupScheduler(backups, metrics, sharedExecutor);
+                    addChangeListener(snapshots);
+                    snapshots.start();
+                }
+            }
+            
+            // Build in-memory search index (belum ada operasi tulis yang bisa masuk)
+            rebuildIndexes();
+            
+            LOG.info("Database connected successfully! " + config);
             
         } catch (ClassNotFoundException e) {
-            System.err.println("SQLite JDBC Driver not found!");
-            e.printStackTrace();
+            LOG.error("SQLite JDBC Driver not found!", e);
         } catch (SQLException e) {
-            System.err.println("Database connection failed!");
-            e.printStackTrace();
+            LOG.error("Database connection failed!", e);
         }
     }
     
+    /**
+     * Database in-memory hanya terlihat dari connection yang membuatnya,
+     * jadi writer memakai connection (dan statement cache) yang sama
+     */
+    private AgendaWriter createWriter() throws SQLException {
+        if (dbUrl.contains(":memory:")) {
+            writerStatements = statements;
+            return new AgendaWriter(connection, false, metrics);
+        }
+        Connection writerConnection = DriverManager.getConnection(dbUrl);
+        config.applyTo(writerConnection);
+        writerStatements = new StatementCache(writerConnection, metrics);
+        if (sharedExecutor != null) {
+            return new AgendaWriter(writerConnection, true, metrics, Thread.ofVirtual());
+        }
+        return new AgendaWriter(writerConnection, true, metrics);
+    }
+    
     /**
      * Membuat tabel agenda jika belum ada
      * Struktur: id, judul, deskripsi, tanggal_waktu, prioritas
@@ -89,10 +243,53 @@ public class DatabaseHelper {
         
         try (Statement stmt = connection.createStatement()) {
             stmt.execute(sql);
-            System.out.println("Table checked/created successfully!");
+            LOG.debug("Table checked/created successfully!");
+        } catch (SQLException e) {
+            LOG.error("Failed to create table!", e);
+        }
+        
+        createIndexes();
+        createArchiveTable();
+    }
+    
+    /**
+     * Membuat tabel arsip dengan kolom yang sama (ID dipertahankan, tanpa AUTOINCREMENT)
+     * ID tetap unik di kedua tabel karena AUTOINCREMENT tidak pernah memakai ulang ID
+     */
+    private void createArchiveTable() {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + ARCHIVE_TABLE + " ("
+                    + "id INTEGER PRIMARY KEY,"
+                    + "judul TEXT NOT NULL,"
+                    + "deskripsi TEXT,"
+                    + "tanggal_waktu TEXT NOT NULL,"
+                    + "prioritas TEXT"
+                    + ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + ARCHIVE_TABLE + "_tanggal ON "
+                    + ARCHIVE_TABLE + " (tanggal_waktu, id)");
         } catch (SQLException e) {
-            System.err.println("Failed to create table!");
-            e.printStackTrace();
+            LOG.error("Failed to create archive table!", e);
+        }
+    }
+    
+    /**
+     * Membuat index untuk setiap kolom pengurutan (lihat AgendaSortField)
+     * dan untuk filter prioritas
+     */
+    private void createIndexes() {
+        try (Statement stmt = connection.createStatement()) {
+            for (AgendaSortField field : AgendaSortField.values()) {
+                if (field == AgendaSortField.ID) {
+                    continue; // Sudah menjadi PRIMARY KEY
+                }
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE_NAME + "_"
+                        + field.name().toLowerCase() + " ON " + TABLE_NAME
+                        + " (" + field.getExpression() + ", id)");
+            }
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE_NAME + "_prioritas_filter ON "
+                    + TABLE_NAME + " (prioritas, tanggal_waktu)");
+        } catch (SQLException e) {
+            LOG.error("Failed to create indexes!", e);
         }
     }
     
@@ -103,62 +300,212 @@ public class DatabaseHelper {
     public Connection getConnection() {
         try {
             if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL);
+                if (statements != null) {
+                    statements.close(); // Statement milik connection lama
+                }
+                connection = DriverManager.getConnection(dbUrl);
+                config.applyTo(connection);
+                statements = new StatementCache(connection, metrics);
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.error("Failed to reconnect database!", e);
         }
         return connection;
     }
     
+    /**
+     * Metrics latensi per operasi DAO (juga tersedia lewat JMX
+     * sebagai database:type=DatabaseHelper)
+     * @return QueryMetrics dengan snapshot API
+     */
+    @Override
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Bangun ulang index pencarian in-memory (trigram dan fuzzy) dari isi database
+     * Dijalankan di thread writer (lihat fireAgendaReloadedViaWriter)
+     */
+    public void rebuildSearchIndex() {
+        awaitWrite(submitWrite(conn -> null, ignored -> {
+            searchCache.invalidate();
+            rebuildIndexes();
+        }), null, "Failed to rebuild search index!");
+    }
+    
+    /**
+     * Snapshot dan rebuild tanpa operasi tulis di antaranya: dipanggil di thread writer
+     * (update index dari operasi tulis lain juga berjalan di sana) atau saat inisialisasi
+     */
+    private void rebuildIndexes() {
+        if (searchIndex.isConfigured() || fuzzyIndex.isConfigured()) {
+            List<Agenda> agendaList = getAllAgenda();
+            searchIndex.rebuild(agendaList);
+            fuzzyIndex.rebuild(agendaList);
+        }
+    }
+    
     // ========== CRUD OPERATIONS ==========
     
     /**
      * CREATE - Menambah agenda baru ke database
+     * ID hasil auto-increment di-set kembali ke objek agenda
+     * Menunggu sampai batch writer di-commit (lihat insertAgendaAsync)
      * @param agenda Objek agenda yang akan ditambahkan
      * @return true jika berhasil, false jika gagal
      */
+    @Override
     public boolean insertAgenda(Agenda agenda) {
+        return awaitWrite(insertAgendaAsync(agenda), false, "Failed to insert agenda!");
+    }
+    
+    /**
+     * CREATE - Menambah agenda lewat writer queue tanpa menunggu
+     * Insert yang datang berdekatan di-commit bersama dalam satu transaksi.
+     * Setelah commit, ID di-set ke objek agenda dan event dikirim (di thread writer)
+     * @param agenda Objek agenda yang akan ditambahkan
+     * @return Future berisi true jika baris ditambahkan; gagal jika terjadi SQLException
+     */
+    @Override
+    public CompletableFuture<Boolean> insertAgendaAsync(Agenda agenda) {
         String sql = "INSERT INTO " + TABLE_NAME + 
                      " (judul, deskripsi, tanggal_waktu, prioritas) " +
                      "VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, agenda.getJudul());
-            pstmt.setString(2, agenda.getDeskripsi());
-            pstmt.setString(3, agenda.getTanggalWaktu().format(
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            pstmt.setString(4, agenda.getPrioritas());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Failed to insert agenda!");
-            e.printStackTrace();
-            return false;
-        }
+        QueryMetrics.Timer timer = metrics.start("insertAgenda");
+        CompletableFuture<Integer> generatedId = submitWrite(conn -> {
+            long start = System.nanoTime();
+            try (StatementCache.Lease lease = writerStatements.prepare(sql,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement pstmt = lease.statement();
+                String tanggalWaktu = agenda.getTanggalWaktu().format(
+                        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                pstmt.setString(1, agenda.getJudul());
+                pstmt.setString(2, agenda.getDeskripsi());
+                pstmt.setString(3, tanggalWaktu);
+                pstmt.setString(4, agenda.getPrioritas());
+                
+                int id = 0;
+                if (pstmt.executeUpdate() > 0) {
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        id = keys.next() ? keys.getInt(1) : 0;
+                    }
+                }
+                slowQueryLog.check(conn, sql, System.nanoTime() - start, agenda.getJudul(),
+                        agenda.getDeskripsi(), tanggalWaktu, agenda.getPrioritas());
+                return id;
+            }
+        }, id -> {
+            if (id > 0) {
+                agenda.setId(id);
+                fireAgendaInserted(agenda);
+            }
+        });
+        return track(timer, generatedId.thenApply(id -> id > 0), inserted -> inserted ? 1 : 0);
+    }
+    
+    /**
+     * CREATE - Insert dengan ID yang sudah ada (perpindahan agenda antar shard, ID dipertahankan)
+     * sqlite_sequence dikembalikan ke nilai sebelumnya, agar ID dari blok shard lain
+     * tidak menggeser AUTOINCREMENT shard ini
+     * @param agenda Agenda dengan ID
+     * @return true jika berhasil
+     */
+    boolean insertAgendaWithId(Agenda agenda) {
+        String sql = "INSERT INTO " + TABLE_NAME + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+        String seqSql = "SELECT seq FROM sqlite_sequence WHERE name = '" + TABLE_NAME + "'";
+        String resetSql = "UPDATE sqlite_sequence SET seq = ? WHERE name = '" + TABLE_NAME + "'";
+        
+        QueryMetrics.Timer timer = metrics.start("insertAgenda");
+        CompletableFuture<Boolean> inserted = submitWrite(conn -> {
+            long seq;
+            try (StatementCache.Lease lease = writerStatements.prepare(seqSql);
+                 ResultSet rs = lease.statement().executeQuery()) {
+                seq = rs.next() ? rs.getLong(1) : 0;
+            }
+            String tanggalWaktu = agenda.getTanggalWaktu().format(
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            boolean added = executeWrite(conn, sql, agenda.getId(), agenda.getJudul(),
+                    agenda.getDeskripsi(), tanggalWaktu, agenda.getPrioritas()) > 0;
+            executeWrite(conn, resetSql, seq);
+            return added;
+        }, added -> {
+            if (added) {
+                fireAgendaInserted(agenda);
+            }
+        });
+        return awaitWrite(track(timer, inserted, added -> added ? 1 : 0), false, "Failed to insert agenda!");
+    }
+    
+    /**
+     * CREATE - Menambah banyak agenda dalam satu transaksi
+     * Jauh lebih cepat daripada insertAgenda berulang (satu commit/fsync untuk semua baris).
+     * ID hasil auto-increment di-set ke setiap objek; event dikirim setelah commit
+     * @param agendaList Agenda yang akan ditambahkan
+     * @return Jumlah agenda yang berhasil ditambahkan (0 jika transaksi gagal)
+     */
+    @Override
+    public int insertAgendaBatch(List<Agenda> agendaList) {
+        String sql = "INSERT INTO " + TABLE_NAME + 
+                     " (judul, deskripsi, tanggal_waktu, prioritas) " +
+                     "VALUES (?, ?, ?, ?)";
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        
+        QueryMetrics.Timer timer = metrics.start("insertAgendaBatch");
+        CompletableFuture<int[]> generatedIds = submitWrite(conn -> {
+            int[] ids = new int[agendaList.size()];
+            try (StatementCache.Lease lease = writerStatements.prepare(sql,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement pstmt = lease.statement();
+                for (int i = 0; i < ids.length; i++) {
+                    Agenda agenda = agendaList.get(i);
+                    pstmt.setString(1, agenda.getJudul());
+                    pstmt.setString(2, agenda.getDeskripsi());
+                    pstmt.setString(3, agenda.getTanggalWaktu().format(formatter));
+                    pstmt.setString(4, agenda.getPrioritas());
+                    pstmt.executeUpdate();
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        ids[i] = keys.next() ? keys.getInt(1) : 0;
+                    }
+                }
+            }
+            return ids;
+        }, ids -> {
+            for (int i = 0; i < ids.length; i++) {
+                agendaList.get(i).setId(ids[i]);
+                fireAgendaInserted(agendaList.get(i));
+            }
+        });
+        track(timer, generatedIds, ids -> ids.length);
+        return awaitWrite(generatedIds, new int[0], "Failed to insert agenda batch!").length;
     }
     
     /**
      * READ - Mengambil semua agenda dari database
      * @return List of Agenda objects
      */
+    @Override
     public List<Agenda> getAllAgenda() {
         List<Agenda> agendaList = new ArrayList<>();
         String sql = "SELECT * FROM " + TABLE_NAME + " ORDER BY tanggal_waktu ASC";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        QueryMetrics.Timer timer = metrics.start("getAllAgenda");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql);
+             ResultSet rs = lease.statement().executeQuery()) {
             
             while (rs.next()) {
                 Agenda agenda = extractAgendaFromResultSet(rs);
                 agendaList.add(agenda);
             }
+            slowQueryLog.check(connection, sql, timer.stop(agendaList.size()));
             
         } catch (SQLException e) {
-            System.err.println("Failed to retrieve agenda!");
-            e.printStackTrace();
+            timer.fail();
+            LOG.error("Failed to retrieve agenda!", e);
+        } finally {
+            connectionLock.readLock().unlock();
         }
         
         return agendaList;
@@ -169,20 +516,29 @@ public class DatabaseHelper {
      * @param id ID agenda
      * @return Objek Agenda atau null jika tidak ditemukan
      */
+    @Override
     public Agenda getAgendaById(int id) {
         String sql = "SELECT * FROM " + TABLE_NAME + " WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaById");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
             
-            if (rs.next()) {
-                return extractAgendaFromResultSet(rs);
+            Agenda agenda = rs.next() ? extractAgendaFromResultSet(rs) : null;
+            if (agenda == null) {
+                agenda = getArchivedAgendaById(id);
             }
+            slowQueryLog.check(connection, sql, timer.stop(agenda != null ? 1 : 0), id);
+            return agenda;
             
         } catch (SQLException e) {
-            System.err.println("Failed to get agenda by ID!");
-            e.printStackTrace();
+            timer.fail();
+            LOG.error("Failed to get agenda by ID!", e);
+        } finally {
+            connectionLock.readLock().unlock();
         }
         
         return null;
@@ -193,24 +549,71 @@ public class DatabaseHelper {
      * @param tanggal Tanggal dalam format LocalDateTime
      * @return List agenda pada tanggal tersebut
      */
+    @Override
     public List<Agenda> getAgendaByDate(LocalDateTime tanggal) {
         List<Agenda> agendaList = new ArrayList<>();
         String sql = "SELECT * FROM " + TABLE_NAME + 
                      " WHERE DATE(tanggal_waktu) = DATE(?) ORDER BY tanggal_waktu ASC";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, tanggal.format(
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        QueryMetrics.Timer timer = metrics.start("getAgendaByDate");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
+            String tanggalWaktu = tanggal.format(
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            pstmt.setString(1, tanggalWaktu);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
                 Agenda agenda = extractAgendaFromResultSet(rs);
                 agendaList.add(agenda);
             }
+            slowQueryLog.check(connection, sql, timer.stop(agendaList.size()), tanggalWaktu);
             
         } catch (SQLException e) {
-            System.err.println("Failed to get agenda by date!");
-            e.printStackTrace();
+            timer.fail();
+            LOG.error("Failed to get agenda by date!", e);
+        } finally {
+            connectionLock.readLock().unlock();
+        }
+        
+        return agendaList;
+    }
+    
+    /**
+     * READ - Mengambil agenda dalam rentang waktu [from, to)
+     * Memakai index tanggal_waktu (range scan, tanpa sort)
+     * @param from Awal rentang (inklusif)
+     * @param to Akhir rentang (eksklusif)
+     * @return List agenda dalam rentang, terurut berdasarkan tanggal
+     */
+    @Override
+    public List<Agenda> getAgendaBetween(LocalDateTime from, LocalDateTime to) {
+        List<Agenda> agendaList = new ArrayList<>();
+        String sql = "SELECT * FROM " + TABLE_NAME +
+                     " WHERE tanggal_waktu >= ? AND tanggal_waktu < ? ORDER BY tanggal_waktu ASC, id ASC";
+        
+        QueryMetrics.Timer timer = metrics.start("getAgendaBetween");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            String fromText = from.format(formatter);
+            String toText = to.format(formatter);
+            pstmt.setString(1, fromText);
+            pstmt.setString(2, toText);
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                agendaList.add(extractAgendaFromResultSet(rs));
+            }
+            slowQueryLog.check(connection, sql, timer.stop(agendaList.size()), fromText, toText);
+            
+        } catch (SQLException e) {
+            timer.fail();
+            LOG.error("Failed to get agenda by range!", e);
+        } finally {
+            connectionLock.readLock().unlock();
         }
         
         return agendaList;
@@ -218,16 +621,34 @@ public class DatabaseHelper {
     
     /**
      * READ - Mencari agenda berdasarkan keyword
+     * Dijawab dari index trigram in-memory jika aktif, fallback ke SQL LIKE
      * @param keyword Kata kunci pencarian
      * @return List agenda yang cocok
      */
+    @Override
     public List<Agenda> searchAgenda(String keyword) {
+        QueryMetrics.Timer indexTimer = metrics.start("searchAgenda.index");
+        List<Agenda> indexed = searchIndex.search(keyword);
+        if (indexed != null) {
+            indexTimer.stop(indexed.size());
+            return indexed;
+        }
+        return searchAgendaSql(keyword);
+    }
+    
+    /**
+     * Pencarian SQL LIKE (index trigram nonaktif)
+     */
+    private List<Agenda> searchAgendaSql(String keyword) {
         List<Agenda> agendaList = new ArrayList<>();
         String sql = "SELECT * FROM " + TABLE_NAME + 
                      " WHERE judul LIKE ? OR deskripsi LIKE ? " +
                      "ORDER BY tanggal_waktu ASC";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        QueryMetrics.Timer timer = metrics.start("searchAgenda.sql");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
             String searchPattern = "%" + keyword + "%";
             pstmt.setString(1, searchPattern);
             pstmt.setString(2, searchPattern);
@@ -238,26 +659,191 @@ public class DatabaseHelper {
                 Agenda agenda = extractAgendaFromResultSet(rs);
                 agendaList.add(agenda);
             }
+            slowQueryLog.check(connection, sql, timer.stop(agendaList.size()),
+                    searchPattern, searchPattern);
             
         } catch (SQLException e) {
-            System.err.println("Failed to search agenda!");
-            e.printStackTrace();
+            timer.fail();
+            LOG.error("Failed to search agenda!", e);
+        } finally {
+            connectionLock.readLock().unlock();
         }
         
         return agendaList;
     }
     
+    /**
+     * READ - Mencari agenda berdasarkan keyword dan filter prioritas
+     * Keyword dijawab index trigram jika aktif (tanpa cache). Hasil SQL (index nonaktif
+     * atau keyword kosong) di-cache per (keyword, prioritas); pencarian yang lebih sempit
+     * disaring dari hasil cache yang lebih luas. Cache direset setiap operasi tulis
+     * @param keyword Kata kunci pencarian (kosong = semua agenda)
+     * @param prioritas Prioritas yang dicari, atau null untuk semua prioritas
+     * @return List agenda yang cocok, terurut berdasarkan tanggal
+     */
+    @Override
+    public List<Agenda> searchAgenda(String keyword, String prioritas) {
+        if (!keyword.isEmpty()) {
+            QueryMetrics.Timer indexTimer = metrics.start("searchAgenda.index");
+            List<Agenda> indexed = searchIndex.search(keyword);
+            if (indexed != null) {
+                if (prioritas != null) {
+                    indexed.removeIf(agenda -> !prioritas.equals(agenda.getPrioritas()));
+                }
+                indexTimer.stop(indexed.size());
+                return indexed;
+            }
+        }
+        
+        QueryMetrics.Timer cacheTimer = metrics.start("searchAgenda.cached");
+        long cacheGeneration = searchCache.getGeneration();
+        List<Agenda> cached = searchCache.get(keyword, prioritas);
+        if (cached != null) {
+            cacheTimer.stop(cached.size());
+            return cached;
+        }
+        
+        long startNanos = System.nanoTime();
+        List<Agenda> results;
+        if (keyword.isEmpty()) {
+            results = prioritas == null ? getAllAgenda() : getAgendaByPrioritas(prioritas);
+        } else {
+            results = searchAgendaSql(keyword);
+            if (prioritas != null) {
+                results.removeIf(agenda -> !prioritas.equals(agenda.getPrioritas()));
+            }
+        }
+        
+        searchCache.put(keyword, prioritas, results, cacheGeneration);
+        metrics.record("searchAgenda.uncached", System.nanoTime() - startNanos, results.size(), true);
+        return results;
+    }
+    
+    /**
+     * READ - Mencari agenda, opsional termasuk arsip
+     * Tanpa arsip sama dengan searchAgenda(keyword, prioritas) (index dan cache);
+     * dengan arsip dijawab SQL LIKE atas kedua tabel, tidak di-cache
+     * @param keyword Kata kunci pencarian (kosong = semua agenda)
+     * @param prioritas Prioritas yang dicari, atau null untuk semua prioritas
+     * @param includeArchive true untuk ikut mencari di agenda_archive
+     * @return List agenda yang cocok, terurut berdasarkan tanggal
+     */
+    @Override
+    public List<Agenda> searchAgenda(String keyword, String prioritas, boolean includeArchive) {
+        if (!includeArchive) {
+            return searchAgenda(keyword, prioritas);
+        }
+        return getAgendaSorted(keyword, prioritas, AgendaSortField.TANGGAL, true, true);
+    }
+    
+    /**
+     * READ - Mencari agenda dengan urutan tertentu (ORDER BY di database)
+     * Dipakai untuk tabel besar agar pengurutan memakai index, bukan sort in-memory
+     * @param keyword Kata kunci pencarian (kosong = semua agenda)
+     * @param prioritas Prioritas yang dicari, atau null untuk semua prioritas
+     * @param sortField Kolom pengurutan
+     * @param ascending true untuk urutan naik
+     * @return List agenda terurut
+     */
+    @Override
+    public List<Agenda> getAgendaSorted(String keyword, String prioritas,
+                                        AgendaSortField sortField, boolean ascending) {
+        return getAgendaSorted(keyword, prioritas, sortField, ascending, false);
+    }
+    
+    /**
+     * READ - Seperti getAgendaSorted, opsional termasuk tabel arsip (UNION ALL)
+     * Pengurutan gabungan tidak bisa memakai index, jadi hanya untuk pencarian opt-in
+     * @param keyword Kata kunci pencarian (kosong = semua agenda)
+     * @param prioritas Prioritas yang dicari, atau null untuk semua prioritas
+     * @param sortField Kolom pengurutan
+     * @param ascending true untuk urutan naik
+     * @param includeArchive true untuk ikut membaca agenda_archive
+     * @return List agenda terurut
+     */
+    @Override
+    public List<Agenda> getAgendaSorted(String keyword, String prioritas,
+                                        AgendaSortField sortField, boolean ascending,
+                                        boolean includeArchive) {
+        List<Agenda> agendaList = new ArrayList<>();
+        String direction = ascending ? " ASC" : " DESC";
+        StringBuilder sql = new StringBuilder("SELECT * FROM "
+                + (includeArchive ? ALL_PARTITIONS : TABLE_NAME) + " WHERE 1=1");
+        if (!keyword.isEmpty()) {
+            sql.append(" AND (judul LIKE ? OR deskripsi LIKE ?)");
+        }
+        if (prioritas != null) {
+            sql.append(" AND prioritas = ?");
+        }
+        sql.append(" ORDER BY ").append(sortField.getExpression()).append(direction)
+           .append(", id").append(direction);
+        
+        QueryMetrics.Timer timer = metrics.start(includeArchive ? "getAgendaSorted.archive" : "getAgendaSorted");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql.toString())) {
+            PreparedStatement pstmt = lease.statement();
+            List<String> params = new ArrayList<>();
+            if (!keyword.isEmpty()) {
+                String searchPattern = "%" + keyword + "%";
+                params.add(searchPattern);
+                params.add(searchPattern);
+            }
+            if (prioritas != null) {
+                params.add(prioritas);
+            }
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setString(i + 1, params.get(i));
+            }
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                agendaList.add(extractAgendaFromResultSet(rs));
+            }
+            slowQueryLog.check(connection, sql.toString(), timer.stop(agendaList.size()),
+                    params.toArray());
+            
+        } catch (SQLException e) {
+            timer.fail();
+            LOG.error("Failed to get sorted agenda!", e);
+        } finally {
+            connectionLock.readLock().unlock();
+        }
+        
+        return agendaList;
+    }
+    
+    /**
+     * READ - Pencarian fuzzy (toleran salah ketik) pada judul agenda
+     * Fallback ke pencarian biasa jika index fuzzy nonaktif
+     * @param keyword Kata kunci pencarian
+     * @return List agenda terurut berdasarkan kemiripan
+     */
+    @Override
+    public List<Agenda> fuzzySearchAgenda(String keyword) {
+        QueryMetrics.Timer timer = metrics.start("fuzzySearchAgenda");
+        List<Agenda> ranked = fuzzyIndex.search(keyword);
+        if (ranked != null) {
+            timer.stop(ranked.size());
+            return ranked;
+        }
+        return searchAgenda(keyword);
+    }
+    
     /**
      * READ - Filter agenda berdasarkan prioritas
      * @param prioritas Prioritas yang dicari
      * @return List agenda dengan prioritas tersebut
      */
+    @Override
     public List<Agenda> getAgendaByPrioritas(String prioritas) {
         List<Agenda> agendaList = new ArrayList<>();
         String sql = "SELECT * FROM " + TABLE_NAME + 
                      " WHERE prioritas = ? ORDER BY tanggal_waktu ASC";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaByPrioritas");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
             pstmt.setString(1, prioritas);
             ResultSet rs = pstmt.executeQuery();
             
@@ -265,10 +851,13 @@ public class DatabaseHelper {
                 Agenda agenda = extractAgendaFromResultSet(rs);
                 agendaList.add(agenda);
             }
+            slowQueryLog.check(connection, sql, timer.stop(agendaList.size()), prioritas);
             
         } catch (SQLException e) {
-            System.err.println("Failed to get agenda by prioritas!");
-            e.printStackTrace();
+            timer.fail();
+            LOG.error("Failed to get agenda by prioritas!", e);
+        } finally {
+            connectionLock.readLock().unlock();
         }
         
         return agendaList;
@@ -276,71 +865,459 @@ public class DatabaseHelper {
     
     /**
      * UPDATE - Mengupdate data agenda
+     * Menunggu sampai batch writer di-commit (lihat updateAgendaAsync)
      * @param agenda Objek agenda dengan data baru
      * @return true jika berhasil, false jika gagal
      */
+    @Override
     public boolean updateAgenda(Agenda agenda) {
+        return awaitWrite(updateAgendaAsync(agenda), false, "Failed to update agenda!");
+    }
+    
+    /**
+     * UPDATE - Mengupdate agenda lewat writer queue tanpa menunggu
+     * Agenda yang sudah diarsipkan diupdate di agenda_archive; jika tanggal barunya
+     * tidak lagi melewati batas arsip, agenda dipindahkan kembali ke tabel agenda
+     * (listener menerima agendaInserted)
+     * @param agenda Objek agenda dengan data baru
+     * @return Future berisi true jika baris diupdate; gagal jika terjadi SQLException
+     */
+    @Override
+    public CompletableFuture<Boolean> updateAgendaAsync(Agenda agenda) {
         String sql = "UPDATE " + TABLE_NAME + 
                      " SET judul=?, deskripsi=?, tanggal_waktu=?, prioritas=? WHERE id=?";
+        String archiveSql = "UPDATE " + ARCHIVE_TABLE + 
+                     " SET judul=?, deskripsi=?, tanggal_waktu=?, prioritas=? WHERE id=?";
+        String unarchiveSql = "INSERT INTO " + TABLE_NAME + " (" + COLUMNS + ")"
+                + " SELECT " + COLUMNS + " FROM " + ARCHIVE_TABLE + " WHERE id = ?";
+        String archiveDeleteSql = "DELETE FROM " + ARCHIVE_TABLE + " WHERE id = ?";
+        String unarchived = "unarchived";
+        boolean backToHot = archiveAfterDays <= 0
+                || !agenda.getTanggalWaktu().isBefore(LocalDateTime.now().minusDays(archiveAfterDays));
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, agenda.getJudul());
-            pstmt.setString(2, agenda.getDeskripsi());
-            pstmt.setString(3, agenda.getTanggalWaktu().format(
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            pstmt.setString(4, agenda.getPrioritas());
-            pstmt.setInt(5, agenda.getId());
-            
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Failed to update agenda!");
-            e.printStackTrace();
-            return false;
-        }
+        QueryMetrics.Timer timer = metrics.start("updateAgenda");
+        return track(timer, submitWrite(conn -> {
+            String tanggalWaktu = agenda.getTanggalWaktu().format(
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            Object[] params = {agenda.getJudul(), agenda.getDeskripsi(), tanggalWaktu,
+                    agenda.getPrioritas(), agenda.getId()};
+            if (executeWrite(conn, sql, params) > 0) {
+                return TABLE_NAME;
+            }
+            if (executeWrite(conn, archiveSql, params) == 0) {
+                return null;
+            }
+            if (!backToHot) {
+                return ARCHIVE_TABLE;
+            }
+            // Tanggal baru masih aktif: kembalikan ke tabel agenda dalam transaksi yang sama
+            executeWrite(conn, unarchiveSql, agenda.getId());
+            executeWrite(conn, archiveDeleteSql, agenda.getId());
+            return unarchived;
+        }, table -> {
+            if (TABLE_NAME.equals(table)) {
+                fireAgendaUpdated(agenda);
+            } else if (ARCHIVE_TABLE.equals(table)) {
+                fireArchivedAgendaUpdated(agenda);
+            } else if (table != null) {
+                fireAgendaInserted(agenda);
+            }
+        }), table -> table != null ? 1 : 0).thenApply(table -> table != null);
     }
     
     /**
      * DELETE - Menghapus agenda dari database
+     * Menunggu sampai batch writer di-commit (lihat deleteAgendaAsync)
      * @param id ID agenda yang akan dihapus
      * @return true jika berhasil, false jika gagal
      */
+    @Override
     public boolean deleteAgenda(int id) {
+        return awaitWrite(deleteAgendaAsync(id), false, "Failed to delete agenda!");
+    }
+    
+    /**
+     * DELETE - Menghapus agenda lewat writer queue tanpa menunggu
+     * Jika tidak ada di tabel agenda, agenda dihapus dari agenda_archive
+     * @param id ID agenda yang akan dihapus
+     * @return Future berisi true jika baris dihapus; gagal jika terjadi SQLException
+     */
+    @Override
+    public CompletableFuture<Boolean> deleteAgendaAsync(int id) {
         String sql = "DELETE FROM " + TABLE_NAME + " WHERE id = ?";
+        String archiveSql = "DELETE FROM " + ARCHIVE_TABLE + " WHERE id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Failed to delete agenda!");
-            e.printStackTrace();
-            return false;
-        }
+        QueryMetrics.Timer timer = metrics.start("deleteAgenda");
+        return track(timer, submitWrite(
+                conn -> executeWrite(conn, sql, id) > 0 || executeWrite(conn, archiveSql, id) > 0,
+                deleted -> {
+                    if (deleted) {
+                        fireAgendaDeleted(id);
+                    }
+                }), deleted -> deleted ? 1 : 0);
     }
     
     /**
-     * DELETE - Hapus semua agenda (untuk testing)
+     * DELETE - Hapus semua agenda, termasuk arsip (untuk testing)
      * @return true jika berhasil
      */
+    @Override
     public boolean deleteAllAgenda() {
         String sql = "DELETE FROM " + TABLE_NAME;
+        String archiveSql = "DELETE FROM " + ARCHIVE_TABLE;
         
-        try (Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(sql);
-            return true;
+        QueryMetrics.Timer timer = metrics.start("deleteAllAgenda");
+        CompletableFuture<Integer> deleted = submitWrite(conn -> {
+            long start = System.nanoTime();
+            try (Statement stmt = conn.createStatement()) {
+                int rowsAffected = stmt.executeUpdate(sql) + stmt.executeUpdate(archiveSql);
+                slowQueryLog.check(conn, sql, System.nanoTime() - start);
+                return rowsAffected;
+            }
+        }, rowsAffected -> fireAgendaReloaded());
+        track(timer, deleted, rowsAffected -> rowsAffected);
+        return awaitWrite(deleted, -1, "Failed to delete all agenda!") >= 0;
+    }
+    
+    // ========== ARCHIVE ==========
+    
+    /**
+     * Arsipkan agenda yang lebih lama dari agenda.archive.olderThanDays hari
+     * Dijalankan otomatis saat idle oleh MaintenanceScheduler
+     * @return Jumlah agenda yang dipindahkan
+     */
+    public int archiveOldAgenda() {
+        if (archiveAfterDays <= 0) {
+            return 0;
+        }
+        return archiveOlderThan(LocalDateTime.now().minusDays(archiveAfterDays));
+    }
+    
+    /**
+     * Pindahkan agenda dengan tanggal sebelum cutoff ke agenda_archive
+     * Dikerjakan per batch (agenda.archive.batchSize baris per transaksi) lewat writer,
+     * sehingga operasi tulis lain tetap bisa masuk di antara batch.
+     * Listener menerima satu agendaReloaded setelah semua batch selesai
+     * Jangan dipanggil dari listener perubahan data (berjalan di thread writer)
+     * @param cutoff Batas tanggal (eksklusif)
+     * @return Jumlah agenda yang dipindahkan
+     */
+    @Override
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        String selectSql = "SELECT id FROM " + TABLE_NAME
+                + " WHERE tanggal_waktu < ? ORDER BY tanggal_waktu, id LIMIT ?";
+        String copySql = "INSERT OR REPLACE INTO " + ARCHIVE_TABLE + " (" + COLUMNS + ")"
+                + " SELECT " + COLUMNS + " FROM " + TABLE_NAME + " WHERE id = ?";
+        String deleteSql = "DELETE FROM " + TABLE_NAME + " WHERE id = ?";
+        String cutoffText = cutoff.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        
+        QueryMetrics.Timer timer = metrics.start("archiveAgenda");
+        if (!hasAgendaBefore(cutoffText)) {
+            timer.stop(0); // Tidak perlu writer (shard lama yang sudah diarsip tetap tanpa writer)
+            return 0;
+        }
+        int total = 0;
+        int moved;
+        do {
+            CompletableFuture<Integer> batch = submitWrite(conn -> {
+                List<Integer> ids = new ArrayList<>();
+                try (StatementCache.Lease lease = writerStatements.prepare(selectSql)) {
+                    PreparedStatement pstmt = lease.statement();
+                    pstmt.setString(1, cutoffText);
+                    pstmt.setInt(2, archiveBatchSize);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+                try (StatementCache.Lease copy = writerStatements.prepare(copySql);
+                     StatementCache.Lease delete = writerStatements.prepare(deleteSql)) {
+                    for (int id : ids) {
+                        copy.statement().setInt(1, id);
+                        copy.statement().executeUpdate();
+                        delete.statement().setInt(1, id);
+                        delete.statement().executeUpdate();
+                    }
+                }
+                return ids.size();
+            }, null);
+            moved = awaitWrite(batch, -1, "Failed to archive agenda!");
+            total += Math.max(0, moved);
+        } while (moved == archiveBatchSize);
+        
+        if (moved < 0) {
+            timer.fail();
+        } else {
+            timer.stop(total);
+        }
+        if (total > 0) {
+            LOG.info("Archived " + total + " agenda(s) older than " + cutoffText);
+            fireAgendaReloadedViaWriter();
+        }
+        return total;
+    }
+    
+    /**
+     * Cek lewat connection baca apakah ada agenda yang perlu diarsip
+     */
+    private boolean hasAgendaBefore(String cutoffText) {
+        String sql = "SELECT 1 FROM " + TABLE_NAME + " WHERE tanggal_waktu < ? LIMIT 1";
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
+            pstmt.setString(1, cutoffText);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
         } catch (SQLException e) {
-            System.err.println("Failed to delete all agenda!");
-            e.printStackTrace();
+            LOG.error("Failed to check agenda to archive!", e);
             return false;
+        } finally {
+            connectionLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Cari agenda di tabel arsip (fallback getAgendaById, dipanggil dengan read lock)
+     */
+    private Agenda getArchivedAgendaById(int id) throws SQLException {
+        String sql = "SELECT * FROM " + ARCHIVE_TABLE + " WHERE id = ?";
+        try (StatementCache.Lease lease = statements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? extractAgendaFromResultSet(rs) : null;
+        }
+    }
+    
+    // ========== FULL VACUUM ==========
+    
+    /**
+     * @return Alasan VACUUM penuh disarankan (dari maintenance terakhir), atau null
+     */
+    public String getFullVacuumAdvice() {
+        return maintenance == null ? null : maintenance.getFullVacuumAdvice();
+    }
+    
+    /**
+     * VACUUM penuh atas permintaan eksplisit (tidak pernah dijalankan otomatis oleh maintenance)
+     * Operasi tulis yang sudah antre diselesaikan dulu; selama VACUUM penulis lain menunggu
+     * @return Ringkasan hasil, atau null jika gagal atau database in-memory
+     */
+    public String fullVacuum() {
+        if (dbUrl.contains(":memory:")) {
+            return null;
+        }
+        if (writer != null) {
+            awaitWrite(submitWrite(conn -> null, null), null, "Failed to drain writer before VACUUM!");
+        }
+        try {
+            return MaintenanceScheduler.fullVacuum(config);
+        } catch (SQLException e) {
+            LOG.error("Full vacuum failed!", e);
+            return null;
+        }
+    }
+    
+    // ========== BACKUP & RESTORE ==========
+    
+    /**
+     * Backup online ke file bertimestamp di agenda.backup.dir (lihat BackupManager)
+     * Berjalan di background; aplikasi tetap bisa membaca dan menulis selama backup
+     * @return Future berisi path file backup
+     */
+    public CompletableFuture<Path> backupAsync() {
+        if (backups == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Backup is not available for " + dbUrl));
+        }
+        return backups.backupAsync();
+    }
+    
+    /**
+     * Ganti isi database dengan file backup
+     * Backup diverifikasi (quick_check) dan disalin ke samping file database, writer
+     * ditutup (tulis baru gagal), pembaca ditahan, backup yang berjalan ditunggu,
+     * connection ditutup,
+     * database lama disimpan sebagai .before-restore, lalu salinan
+     * di-rename atomik menggantikan file database dan connection dibuka kembali.
+     * Listener menerima agendaReloaded
+     * @param backupFile File backup
+     * @return true jika berhasil; jika gagal database lama tetap dipakai
+     */
+    public synchronized boolean restoreFrom(Path backupFile) {
+        if (backups == null) {
+            LOG.error("Restore is not available for " + dbUrl);
+            return false;
+        }
+        Path dbFile = Paths.get(config.getPath()).toAbsolutePath();
+        Path staged = dbFile.resolveSibling(dbFile.getFileName() + ".restore");
+        Path previous = dbFile.resolveSibling(dbFile.getFileName() + ".before-restore");
+        try {
+            BackupManager.verify(backupFile);
+            Files.copy(backupFile, staged, StandardCopyOption.REPLACE_EXISTING);
+        } catch (SQLException | IOException e) {
+            LOG.error("Restore aborted, backup file rejected: " + backupFile, e);
+            return false;
+        }
+        
+        // Writer ditutup sebelum write lock: tulis baru langsung ditolak dan antrean yang
+        // tersisa selesai (callback-nya, misalnya rebuild index, butuh read lock)
+        closeWriter();
+        
+        boolean restored = false;
+        connectionLock.writeLock().lock(); // Pembaca dan penulis menunggu sampai connection baru siap
+        try {
+            closeConnection(); // Writer di-drain, WAL di-checkpoint saat connection terakhir ditutup
+            if (Files.exists(dbFile.resolveSibling(dbFile.getFileName() + "-wal"))) {
+                throw new IOException("Database is still open by another process");
+            }
+            Files.copy(dbFile, previous, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(staged, dbFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            restored = true;
+        } catch (IOException e) {
+            LOG.error("Restore failed, keeping current database", e);
+        } finally {
+            try {
+                initDatabase();
+            } finally {
+                connectionLock.writeLock().unlock();
+            }
+        }
+        
+        if (restored) {
+            LOG.info("Database restored from " + backupFile.toAbsolutePath()
+                    + " (previous copy: " + previous + ")");
+            fireAgendaReloadedViaWriter();
+        }
+        return restored;
+    }
+    
+    /**
+     * Restore dari snapshot otomatis (BackupScheduler): snapshot penuh beserta semua
+     * incremental di rantainya digabung ke file sementara, lalu dipakai restoreFrom
+     * @param fullSnapshot File agenda-full-*.db.gz
+     * @return true jika berhasil
+     */
+    public boolean restoreFromSnapshot(Path fullSnapshot) {
+        Path dbFile = Paths.get(config.getPath()).toAbsolutePath();
+        Path materialized = dbFile.resolveSibling(dbFile.getFileName() + ".snapshot");
+        try {
+            BackupScheduler.materialize(fullSnapshot, materialized);
+            return restoreFrom(materialized);
+        } catch (SQLException | IOException e) {
+            LOG.error("Failed to read snapshot " + fullSnapshot, e);
+            return false;
+        } finally {
+            try {
+                Files.deleteIfExists(materialized);
+            } catch (IOException e) {
+                LOG.warn("Failed to delete " + materialized + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    // ========== CHANGE EVENTS ==========
+    
+    /**
+     * Daftarkan listener perubahan data
+     * @param listener Listener yang akan dipanggil setelah operasi tulis berhasil
+     */
+    @Override
+    public void addChangeListener(AgendaChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Hapus listener perubahan data
+     * @param listener Listener yang akan dihapus
+     */
+    @Override
+    public void removeChangeListener(AgendaChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+    
+    private void fireAgendaInserted(Agenda agenda) {
+        recordChanges();
+        searchCache.invalidate();
+        searchIndex.add(agenda);
+        fuzzyIndex.add(agenda);
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaInserted(copyOf(agenda));
+        }
+    }
+    
+    private void fireAgendaUpdated(Agenda agenda) {
+        recordChanges();
+        searchCache.invalidate();
+        searchIndex.update(agenda);
+        fuzzyIndex.update(agenda);
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaUpdated(copyOf(agenda));
+        }
+    }
+    
+    /**
+     * Agenda di arsip diubah: listener diberi tahu, index pencarian (hanya tabel agenda) tidak
+     */
+    private void fireArchivedAgendaUpdated(Agenda agenda) {
+        recordChanges();
+        searchCache.invalidate();
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaUpdated(copyOf(agenda));
+        }
+    }
+    
+    private void fireAgendaDeleted(int id) {
+        recordChanges();
+        searchCache.invalidate();
+        searchIndex.remove(id);
+        fuzzyIndex.remove(id);
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaDeleted(id);
+        }
+    }
+    
+    /**
+     * Dipanggil di thread writer (afterCommit), sehingga rebuild index tidak
+     * bersilangan dengan update index dari operasi tulis lain
+     */
+    private void fireAgendaReloaded() {
+        if (maintenance != null) {
+            maintenance.requestMaintenance(); // Perubahan massal: banyak page kosong, statistik basi
+        }
+        searchCache.invalidate();
+        rebuildIndexes();
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaReloaded();
+        }
+    }
+    
+    /**
+     * Kirim agendaReloaded dari thread selain writer (arsip, restore): dijalankan sebagai
+     * afterCommit operasi kosong dan ditunggu sampai selesai
+     */
+    private void fireAgendaReloadedViaWriter() {
+        awaitWrite(submitWrite(conn -> null, ignored -> fireAgendaReloaded()), null,
+                "Failed to reload search index!");
+    }
+    
+    private void recordChanges() {
+        if (maintenance != null) {
+            maintenance.recordChanges(1);
         }
     }
     
     // ========== HELPER METHODS ==========
     
+    /**
+     * Salin agenda agar listener tidak berbagi objek dengan pemanggil
+     */
+    private static Agenda copyOf(Agenda agenda) {
+        return new Agenda(agenda.getId(), agenda.getJudul(), agenda.getDeskripsi(),
+                agenda.getTanggalWaktu(), agenda.getPrioritas());
+    }
+    
     /**
      * Helper method untuk extract data dari ResultSet ke objek Agenda
      * @param rs ResultSet dari query
@@ -362,39 +1339,191 @@ public class DatabaseHelper {
     }
     
     /**
-     * Get jumlah total agenda
+     * Jalankan satu statement tulis di thread writer (statement cache writer + slow query log)
+     * @return Jumlah baris yang terpengaruh
+     */
+    private int executeWrite(Connection conn, String sql, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        try (StatementCache.Lease lease = writerStatements.prepare(sql)) {
+            PreparedStatement pstmt = lease.statement();
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            int rowsAffected = pstmt.executeUpdate();
+            slowQueryLog.check(conn, sql, System.nanoTime() - start, params);
+            return rowsAffected;
+        }
+    }
+    
+    /**
+     * Antrekan operasi tulis ke writer aktif; menunggu selama restore mengganti connection,
+     * gagal (future exceptional) jika writer sudah ditutup
+     */
+    private <T> CompletableFuture<T> submitWrite(AgendaWriter.WriteTask<T> task,
+                                                 AgendaWriter.AfterCommit<T> afterCommit) {
+        connectionLock.readLock().lock();
+        try {
+            AgendaWriter current = writer;
+            if (current == null) {
+                current = openWriter();
+            }
+            return current.submit(task, afterCommit);
+        } catch (SQLException e) {
+            LOG.error("Failed to open writer connection!", e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            connectionLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Buat writer saat tulis pertama (shard)
+     */
+    private AgendaWriter openWriter() throws SQLException {
+        synchronized (writerLock) {
+            if (writerClosed) {
+                throw new SQLException("Database is closed: " + dbUrl);
+            }
+            if (writer == null) {
+                writer = createWriter();
+            }
+            return writer;
+        }
+    }
+    
+    /**
+     * Catat metrics operasi tulis saat future selesai (termasuk waktu antre dan commit)
+     */
+    private static <T> CompletableFuture<T> track(QueryMetrics.Timer timer, CompletableFuture<T> future,
+                                                  ToLongFunction<T> rows) {
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                timer.stop(rows.applyAsLong(result));
+            } else {
+                timer.fail();
+            }
+        });
+    }
+    
+    /**
+     * Tunggu hasil operasi tulis; kegagalan dicatat dan diganti nilai fallback.
+     * Setelah agenda.writer.awaitTimeoutMs operasi yang masih di antrean ditarik
+     * (fallback, pasti tidak ditulis); yang sudah diambil writer ditunggu sampai selesai
+     * supaya hasil yang dilaporkan sama dengan isi database
+     * Jangan dipanggil dari listener perubahan data (berjalan di thread writer)
+     */
+    private static <T> T awaitWrite(CompletableFuture<T> future, T fallback, String message) {
+        try {
+            try {
+                return future.get(WRITE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (future instanceof AgendaWriter.WriteFuture
+                        && ((AgendaWriter.WriteFuture<T>) future).withdraw()) {
+                    LOG.error(message + " No result from writer after " + WRITE_TIMEOUT_MILLIS
+                            + " ms, write withdrawn from the queue");
+                    return fallback;
+                }
+                LOG.warn(message + " Write still running after " + WRITE_TIMEOUT_MILLIS
+                        + " ms, waiting for its commit");
+                return future.get();
+            }
+        } catch (ExecutionException | CancellationException e) {
+            LOG.error(message, e.getCause() != null ? e.getCause() : e);
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error(message, e);
+            return fallback;
+        }
+    }
+    
+    /**
+     * Get jumlah agenda aktif (partisi yang sama dengan getAllAgenda dan searchAgenda)
      * @return Jumlah agenda
      */
+    @Override
     public int getTotalAgenda() {
-        String sql = "SELECT COUNT(*) as total FROM " + TABLE_NAME;
+        return getTotalAgenda(false);
+    }
+    
+    /**
+     * Get jumlah agenda
+     * @param includeArchive true untuk ikut menghitung arsip
+     * @return Jumlah agenda
+     */
+    @Override
+    public int getTotalAgenda(boolean includeArchive) {
+        String sql = includeArchive
+                ? "SELECT (SELECT COUNT(*) FROM " + TABLE_NAME + ") + (SELECT COUNT(*) FROM "
+                        + ARCHIVE_TABLE + ") as total"
+                : "SELECT COUNT(*) as total FROM " + TABLE_NAME;
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        QueryMetrics.Timer timer = metrics.start(includeArchive ? "getTotalAgenda.archive" : "getTotalAgenda");
+        connectionLock.readLock().lock();
+        try (StatementCache.Lease lease = statements.prepare(sql);
+             ResultSet rs = lease.statement().executeQuery()) {
             
-            if (rs.next()) {
-                return rs.getInt("total");
-            }
+            int total = rs.next() ? rs.getInt("total") : 0;
+            slowQueryLog.check(connection, sql, timer.stop(1));
+            return total;
             
         } catch (SQLException e) {
-            System.err.println("Failed to get total agenda!");
-            e.printStackTrace();
+            timer.fail();
+            LOG.error("Failed to get total agenda!", e);
+        } finally {
+            connectionLock.readLock().unlock();
         }
         
         return 0;
     }
     
+    /**
+     * Tolak operasi tulis baru dan tunggu antrean writer selesai
+     * Aman dipanggil berulang; initDatabase membuka writer lagi
+     */
+    private void closeWriter() {
+        synchronized (writerLock) {
+            writerClosed = true;
+            if (writer != null) {
+                writer.shutdown(5000);
+            }
+            if (writerStatements != null) {
+                writerStatements.close();
+            }
+        }
+    }
+    
     /**
      * Menutup koneksi database
      */
+    @Override
     public void closeConnection() {
+        if (maintenance != null) {
+            maintenance.shutdown(2000);
+        }
+        if (snapshots != null) {
+            removeChangeListener(snapshots);
+            snapshots.shutdown(5000);
+            snapshots = null;
+        }
+        if (backups != null) {
+            backups.shutdown(5000); // Connection backup harus tertutup sebelum file database diganti
+        }
+        closeWriter();
+        if (statements != null) {
+            statements.close();
+        }
+        if (slowQueryLogHeld) {
+            slowQueryLog.release();
+            slowQueryLogHeld = false;
+        }
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
-                System.out.println("✓ Database connection closed!");
+                LOG.info("✓ Database connection closed!");
             }
         } catch (SQLException e) {
-            System.err.println("Failed to close database connection!");
-            e.printStackTrace();
+            LOG.error("Failed to close database connection!", e);
         }
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package database;
+
+import java.util.Map;
+
+/**
+ *
+ * Interface JMX untuk metrics DatabaseHelper
+ * Terlihat di JConsole/VisualVM sebagai database:type=DatabaseHelper
+ *
+ * @author slozoy
+ */
+public interface DatabaseMetricsMXBean {
+
+    /**
+     * Metrics per operasi (count, errors, rows, mean/p50/p99/max dalam mikrodetik)
+     * @return Map nama operasi ke snapshot
+     */
+    Map<String, QueryMetrics.OperationSnapshot> getOperations();
+
+    /**
+     * Total panggilan semua operasi
+     * @return Jumlah query
+     */
+    long getTotalQueries();
+
+    /**
+     * Counter non-latensi (misalnya statementCache.hit / statementCache.miss)
+     * @return Map nama counter ke nilai
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Rasio hit cache PreparedStatement (0.0 - 1.0)
+     * @return Hit rate, 0 jika cache belum dipakai
+     */
+    double getStatementCacheHitRate();
+
+    /**
+     * Ringkasan metrics dalam bentuk teks
+     * @return Laporan per operasi
+     */
+    String getReport();
+
+    /**
+     * Reset semua metrics
+     */
+    void reset();
+}
@@ -0,0 +1,500 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import util.Log;
+
+/**
+ *
+ * Index pencarian fuzzy (toleran salah ketik) berbasis BK-tree
+ * Token judul disimpan di BK-tree dengan jarak Levenshtein, sehingga kata
+ * yang salah ketik tetap menemukan agenda dengan jarak edit terbatas
+ *
+ * @author slozoy
+ */
+public class FuzzySearchIndex {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(FuzzySearchIndex.class);
+    private static final int DEFAULT_MAX_ENTRIES = 1_000_000;
+    private static final long DEFAULT_BUDGET_MILLIS = 50;
+    private static final int DEFAULT_RESULT_LIMIT = 200;
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    /**
+     * Urutan relevansi: total jarak edit, lalu tanggal dan ID
+     */
+    private static final Comparator<Scored> RANK_ORDER = Comparator.comparingInt((Scored s) -> s.score)
+            .thenComparing(s -> s.agenda.getTanggalWaktu())
+            .thenComparingInt(s -> s.agenda.getId());
+
+    // ========== ATTRIBUTES ==========
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Agenda> agendaById = new HashMap<>();
+    private final Map<Integer, String[]> tokensById = new HashMap<>();
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final int maxEntries;
+    private final long budgetNanos;
+    private final int resultLimit;
+    private final boolean configured;
+    private Node root;
+    private int treeSize;
+    private boolean enabled;
+
+    /**
+     * Constructor, konfigurasi dibaca dari system properties:
+     * agenda.index.enabled, agenda.fuzzy.maxEntries (terpisah dari batas index trigram,
+     * karena yang disimpan hanya token judul), agenda.fuzzy.budgetMs dan agenda.fuzzy.limit
+     */
+    public FuzzySearchIndex() {
+        this(Boolean.parseBoolean(System.getProperty("agenda.index.enabled", "true")));
+    }
+
+    /**
+     * Constructor dengan status aktif tertentu (misalnya nonaktif untuk shard, karena
+     * ShardedAgendaRepository memakai satu index fuzzy gabungan)
+     * @param configured false untuk index yang selalu nonaktif
+     */
+    FuzzySearchIndex(boolean configured) {
+        this.configured = configured;
+        this.enabled = configured;
+        this.maxEntries = Integer.getInteger("agenda.fuzzy.maxEntries", DEFAULT_MAX_ENTRIES);
+        this.budgetNanos = Long.getLong("agenda.fuzzy.budgetMs", DEFAULT_BUDGET_MILLIS) * 1_000_000L;
+        this.resultLimit = Integer.getInteger("agenda.fuzzy.limit", DEFAULT_RESULT_LIMIT);
+    }
+
+    // ========== INDEX MAINTENANCE ==========
+
+    /**
+     * Bangun ulang index dari seluruh data
+     * Index yang dinonaktifkan karena batas memori aktif kembali jika data sudah di bawah batas
+     * @param agendaList Semua agenda di database
+     */
+    public void rebuild(List<Agenda> agendaList) {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+            if (!configured) {
+                return;
+            }
+            if (agendaList.size() > maxEntries) {
+                if (enabled) {
+                    disableInternal();
+                }
+                return;
+            }
+            if (!enabled) {
+                enabled = true;
+                LOG.info("Fuzzy index re-enabled (" + agendaList.size() + " entries)");
+            }
+            for (Agenda agenda : agendaList) {
+                addInternal(agenda);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tambah agenda baru ke index
+     * @param agenda Agenda yang sudah memiliki ID
+     */
+    public void add(Agenda agenda) {
+        lock.writeLock().lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+            if (agendaById.size() >= maxEntries) {
+                disableInternal();
+                return;
+            }
+            addInternal(agenda);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update agenda di index
+     * @param agenda Agenda dengan data terbaru
+     */
+    public void update(Agenda agenda) {
+        lock.writeLock().lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+            removeInternal(agenda.getId());
+            addInternal(agenda);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hapus agenda dari index
+     * @param id ID agenda
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (enabled) {
+                removeInternal(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Kosongkan index (aktif kembali jika sebelumnya dinonaktifkan karena batas memori)
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+            enabled = configured;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cek apakah index aktif
+     * @return true jika aktif
+     */
+    public boolean isEnabled() {
+        lock.readLock().lock();
+        try {
+            return enabled;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cek apakah index diaktifkan lewat konfigurasi (agenda.index.enabled)
+     * @return true jika dikonfigurasi aktif
+     */
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    // ========== SEARCH ==========
+
+    /**
+     * Cari agenda yang judulnya mirip dengan keyword (toleran salah ketik)
+     * Hasil diurutkan berdasarkan total jarak edit, lalu tanggal
+     * Anggaran waktu (agenda.fuzzy.budgetMs) berlaku untuk penelusuran BK-tree dan
+     * penilaian; saat habis, hasil yang sudah terkumpul yang diurutkan dan dikembalikan.
+     * Hanya agenda.fuzzy.limit hasil terbaik yang diurutkan (heap terbatas)
+     * @param keyword Kata kunci pencarian
+     * @return List agenda terurut berdasarkan relevansi, atau null jika index nonaktif
+     */
+    public List<Agenda> search(String keyword) {
+        String[] queryTokens = tokenize(keyword);
+
+        lock.readLock().lock();
+        try {
+            if (!enabled) {
+                return null;
+            }
+            if (queryTokens.length == 0 || root == null) {
+                return new ArrayList<>();
+            }
+
+            long deadline = System.nanoTime() + budgetNanos;
+            int[] visits = new int[1];
+
+            // Skor per agenda: jumlah jarak terbaik untuk setiap token query
+            Map<Integer, int[]> scores = new HashMap<>();
+            scoring:
+            for (int q = 0; q < queryTokens.length; q++) {
+                String token = queryTokens[q];
+                int maxDistance = maxDistanceFor(token);
+                Map<String, Integer> matches = new HashMap<>();
+                collect(root, token, maxDistance, matches, deadline, visits);
+
+                for (Map.Entry<String, Integer> match : matches.entrySet()) {
+                    Set<Integer> ids = postings.get(match.getKey());
+                    if (ids == null) {
+                        continue; // Token sudah tidak dipakai (tombstone)
+                    }
+                    for (Integer id : ids) {
+                        if (++visits[0] % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                            break scoring;
+                        }
+                        int[] perToken = scores.computeIfAbsent(id,
+                                k -> newScore(queryTokens.length));
+                        perToken[q] = Math.min(perToken[q], match.getValue());
+                    }
+                }
+            }
+
+            // Heap berisi resultLimit hasil terbaik, akarnya hasil terburuk di heap
+            PriorityQueue<Scored> best = new PriorityQueue<>(RANK_ORDER.reversed());
+            for (Map.Entry<Integer, int[]> entry : scores.entrySet()) {
+                Scored scored = new Scored(agendaById.get(entry.getKey()),
+                        totalScore(entry.getValue(), queryTokens));
+                if (best.size() < resultLimit) {
+                    best.add(scored);
+                } else if (resultLimit > 0 && RANK_ORDER.compare(scored, best.peek()) < 0) {
+                    best.poll();
+                    best.add(scored);
+                }
+            }
+
+            List<Scored> ranked = new ArrayList<>(best);
+            ranked.sort(RANK_ORDER);
+            List<Agenda> results = new ArrayList<>(ranked.size());
+            for (Scored scored : ranked) {
+                results.add(copyOf(scored.agenda));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== BK-TREE ==========
+
+    /**
+     * Telusuri BK-tree secara iteratif, hanya cabang dengan jarak
+     * [d - maxDistance, d + maxDistance] yang dikunjungi
+     */
+    private void collect(Node start, String token, int maxDistance,
+                         Map<String, Integer> matches, long deadline, int[] visits) {
+        List<Node> stack = new ArrayList<>();
+        stack.add(start);
+
+        while (!stack.isEmpty()) {
+            if (++visits[0] % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                return; // Anggaran latensi habis, kembalikan hasil sejauh ini
+            }
+
+            Node node = stack.remove(stack.size() - 1);
+            int distance = levenshtein(token, node.token);
+            if (distance <= maxDistance) {
+                matches.merge(node.token, distance, Math::min);
+            }
+            if (node.children == null) {
+                continue;
+            }
+            int low = Math.max(1, distance - maxDistance);
+            int high = Math.min(node.children.length - 1, distance + maxDistance);
+            for (int edge = low; edge <= high; edge++) {
+                if (node.children[edge] != null) {
+                    stack.add(node.children[edge]);
+                }
+            }
+        }
+    }
+
+    private void insertToken(String token) {
+        if (root == null) {
+            root = new Node(token);
+            treeSize++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = levenshtein(token, node.token);
+            if (distance == 0) {
+                return;
+            }
+            if (node.children == null || node.children.length <= distance) {
+                node.children = Arrays.copyOf(node.children == null ? new Node[0] : node.children,
+                        distance + 1);
+            }
+            Node child = node.children[distance];
+            if (child == null) {
+                node.children[distance] = new Node(token);
+                treeSize++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Bangun ulang BK-tree jika terlalu banyak token tombstone
+     */
+    private void compactTreeIfNeeded() {
+        int liveTokens = postings.size();
+        if (treeSize > 1024 && treeSize > liveTokens * 2) {
+            root = null;
+            treeSize = 0;
+            for (String token : postings.keySet()) {
+                insertToken(token);
+            }
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private void addInternal(Agenda agenda) {
+        removeInternal(agenda.getId()); // Add ulang untuk ID yang sama: buang token lama
+        String[] tokens = tokenize(agenda.getJudul());
+        agendaById.put(agenda.getId(), copyOf(agenda));
+        tokensById.put(agenda.getId(), tokens);
+
+        for (String token : tokens) {
+            Set<Integer> ids = postings.get(token);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(token, ids);
+                insertToken(token);
+            }
+            ids.add(agenda.getId());
+        }
+    }
+
+    private void removeInternal(int id) {
+        agendaById.remove(id);
+        String[] tokens = tokensById.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Integer> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token); // Node di BK-tree menjadi tombstone
+                }
+            }
+        }
+        compactTreeIfNeeded();
+    }
+
+    private void clearInternal() {
+        agendaById.clear();
+        tokensById.clear();
+        postings.clear();
+        root = null;
+        treeSize = 0;
+    }
+
+    private void disableInternal() {
+        clearInternal();
+        enabled = false;
+        LOG.warn("Fuzzy index disabled (limit " + maxEntries + " entries)");
+    }
+
+    /**
+     * Pecah teks menjadi token unik lowercase (huruf dan angka)
+     */
+    private static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String part : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!part.isEmpty()) {
+                tokens.add(part);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Jarak edit maksimum bergantung pada panjang token
+     */
+    private static int maxDistanceFor(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    private static int[] newScore(int size) {
+        int[] score = new int[size];
+        Arrays.fill(score, Integer.MAX_VALUE);
+        return score;
+    }
+
+    /**
+     * Token query yang tidak cocok diberi penalti (jarak maksimum + 1)
+     */
+    private static int totalScore(int[] perToken, String[] queryTokens) {
+        int total = 0;
+        for (int i = 0; i < perToken.length; i++) {
+            total += perToken[i] == Integer.MAX_VALUE
+                    ? maxDistanceFor(queryTokens[i]) + 1
+                    : perToken[i];
+        }
+        return total;
+    }
+
+    /**
+     * Jarak Levenshtein dengan dua baris array
+     */
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static Agenda copyOf(Agenda agenda) {
+        return new Agenda(agenda.getId(), agenda.getJudul(), agenda.getDeskripsi(),
+                agenda.getTanggalWaktu(), agenda.getPrioritas());
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Node BK-tree, children diindeks berdasarkan jarak edit ke parent
+     */
+    private static class Node {
+        private final String token;
+        private Node[] children;
+
+        Node(String token) {
+            this.token = token;
+        }
+    }
+
+    /**
+     * Agenda beserta skor relevansinya
+     */
+    private static class Scored {
+        private final Agenda agenda;
+        private final int score;
+
+        Scored(Agenda agenda, int score) {
+            this.agenda = agenda;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ *
+ * Storage engine in-memory tanpa file (demo, pengujian, benchmark)
+ * Data disimpan di dua map concurrent: ConcurrentHashMap per ID dan
+ * ConcurrentSkipListMap per (tanggal_waktu, id), sehingga getAllAgenda dan
+ * getAgendaByDate langsung terurut tanpa sort. Pembaca tidak pernah dikunci
+ * (iterasi weakly consistent); penulis diserialkan agar kedua map tetap sinkron
+ * Agenda selalu disalin saat masuk dan keluar, jadi pemanggil tidak berbagi objek
+ * Nama operasi di metrics sama dengan DatabaseHelper agar hasil bisa dibandingkan
+ *
+ * @author slozoy
+ */
+public class InMemoryAgendaRepository implements AgendaRepository {
+
+    // ========== ATTRIBUTES ==========
+    private final Map<Integer, Agenda> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<DateKey, Agenda> byDate = new ConcurrentSkipListMap<>();
+    private final FuzzySearchIndex fuzzyIndex = new FuzzySearchIndex();
+    private final List<AgendaChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final QueryMetrics metrics = new QueryMetrics();
+    private final Object writeLock = new Object();
+    private int lastId;
+
+    // ========== CREATE ==========
+
+    @Override
+    public boolean insertAgenda(Agenda agenda) {
+        QueryMetrics.Timer timer = metrics.start("insertAgenda");
+        synchronized (writeLock) {
+            store(agenda);
+            timer.stop(1);
+            fireAgendaInserted(agenda);
+        }
+        return true;
+    }
+
+    @Override
+    public int insertAgendaBatch(List<Agenda> agendaList) {
+        QueryMetrics.Timer timer = metrics.start("insertAgendaBatch");
+        synchronized (writeLock) {
+            for (Agenda agenda : agendaList) {
+                store(agenda);
+            }
+            timer.stop(agendaList.size());
+            for (Agenda agenda : agendaList) {
+                fireAgendaInserted(agenda);
+            }
+        }
+        return agendaList.size();
+    }
+
+    // ========== READ ==========
+
+    @Override
+    public List<Agenda> getAllAgenda() {
+        QueryMetrics.Timer timer = metrics.start("getAllAgenda");
+        List<Agenda> agendaList = copyAll(byDate.values(), agenda -> true);
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public Agenda getAgendaById(int id) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaById");
+        Agenda agenda = byId.get(id);
+        timer.stop(agenda == null ? 0 : 1);
+        return agenda == null ? null : copyOf(agenda);
+    }
+
+    @Override
+    public List<Agenda> getAgendaByDate(LocalDateTime tanggal) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaByDate");
+        LocalDateTime start = tanggal.toLocalDate().atStartOfDay();
+        List<Agenda> agendaList = copyAll(byDate.subMap(new DateKey(start, Integer.MIN_VALUE), true,
+                new DateKey(start.plusDays(1), Integer.MIN_VALUE), false).values(), agenda -> true);
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> getAgendaBetween(LocalDateTime from, LocalDateTime to) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaBetween");
+        List<Agenda> agendaList = copyAll(byDate.subMap(new DateKey(from, Integer.MIN_VALUE), true,
+                new DateKey(to, Integer.MIN_VALUE), false).values(), agenda -> true);
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> searchAgenda(String keyword) {
+        QueryMetrics.Timer timer = metrics.start("searchAgenda.scan");
+        List<Agenda> agendaList = copyAll(byDate.values(), matches(keyword, null));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> searchAgenda(String keyword, String prioritas) {
+        QueryMetrics.Timer timer = metrics.start("searchAgenda.scan");
+        List<Agenda> agendaList = copyAll(byDate.values(), matches(keyword, prioritas));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> getAgendaSorted(String keyword, String prioritas,
+                                        AgendaSortField sortField, boolean ascending) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaSorted");
+        List<Agenda> agendaList = copyAll(byDate.values(), matches(keyword, prioritas));
+        Comparator<Agenda> order = sortField.comparator().thenComparingInt(Agenda::getId);
+        agendaList.sort(ascending ? order : order.reversed());
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> fuzzySearchAgenda(String keyword) {
+        QueryMetrics.Timer timer = metrics.start("fuzzySearchAgenda");
+        List<Agenda> ranked = fuzzyIndex.search(keyword);
+        if (ranked != null) {
+            timer.stop(ranked.size());
+            return ranked;
+        }
+        return searchAgenda(keyword);
+    }
+
+    @Override
+    public List<Agenda> getAgendaByPrioritas(String prioritas) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaByPrioritas");
+        List<Agenda> agendaList = copyAll(byDate.values(),
+                agenda -> prioritas.equals(agenda.getPrioritas()));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public int getTotalAgenda() {
+        return byId.size();
+    }
+
+    // ========== UPDATE / DELETE ==========
+
+    @Override
+    public boolean updateAgenda(Agenda agenda) {
+        QueryMetrics.Timer timer = metrics.start("updateAgenda");
+        synchronized (writeLock) {
+            Agenda old = byId.get(agenda.getId());
+            if (old == null) {
+                timer.stop(0);
+                return false;
+            }
+            Agenda stored = copyOf(agenda);
+            byDate.remove(DateKey.of(old));
+            byId.put(stored.getId(), stored);
+            byDate.put(DateKey.of(stored), stored);
+            timer.stop(1);
+            fireAgendaUpdated(agenda);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean deleteAgenda(int id) {
+        QueryMetrics.Timer timer = metrics.start("deleteAgenda");
+        synchronized (writeLock) {
+            Agenda old = byId.remove(id);
+            if (old == null) {
+                timer.stop(0);
+                return false;
+            }
+            byDate.remove(DateKey.of(old));
+            timer.stop(1);
+            fireAgendaDeleted(id);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean deleteAllAgenda() {
+        QueryMetrics.Timer timer = metrics.start("deleteAllAgenda");
+        synchronized (writeLock) {
+            int rows = byId.size();
+            byId.clear();
+            byDate.clear();
+            timer.stop(rows);
+            fuzzyIndex.clear();
+            for (AgendaChangeListener listener : changeListeners) {
+                listener.agendaReloaded();
+            }
+        }
+        return true;
+    }
+
+    // ========== LISTENERS & LIFECYCLE ==========
+
+    @Override
+    public void addChangeListener(AgendaChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(AgendaChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    @Override
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Tidak ada resource yang perlu ditutup; data tetap ada selama objek dipakai
+     */
+    @Override
+    public void closeConnection() {
+    }
+
+    // ========== CHANGE EVENTS ==========
+
+    private void fireAgendaInserted(Agenda agenda) {
+        fuzzyIndex.add(copyOf(agenda));
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaInserted(copyOf(agenda));
+        }
+    }
+
+    private void fireAgendaUpdated(Agenda agenda) {
+        fuzzyIndex.update(copyOf(agenda));
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaUpdated(copyOf(agenda));
+        }
+    }
+
+    private void fireAgendaDeleted(int id) {
+        fuzzyIndex.remove(id);
+        for (AgendaChangeListener listener : changeListeners) {
+            listener.agendaDeleted(id);
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    // Event dikirim di dalam writeLock (seperti thread writer DatabaseHelper),
+    // sehingga index fuzzy dan listener menerima perubahan sesuai urutan commit
+
+    /**
+     * Beri ID auto-increment dan simpan salinan agenda (dipanggil dengan writeLock)
+     */
+    private void store(Agenda agenda) {
+        agenda.setId(++lastId);
+        Agenda stored = copyOf(agenda);
+        byId.put(stored.getId(), stored);
+        byDate.put(DateKey.of(stored), stored);
+    }
+
+    /**
+     * Filter keyword (judul/deskripsi, seperti LIKE '%keyword%') dan prioritas
+     */
+    private static Predicate<Agenda> matches(String keyword, String prioritas) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        return agenda -> (prioritas == null || prioritas.equals(agenda.getPrioritas()))
+                && (needle.isEmpty() || contains(agenda.getJudul(), needle)
+                    || contains(agenda.getDeskripsi(), needle));
+    }
+
+    private static boolean contains(String text, String needle) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private static List<Agenda> copyAll(Collection<Agenda> source, Predicate<Agenda> filter) {
+        List<Agenda> agendaList = new ArrayList<>();
+        for (Agenda agenda : source) {
+            if (filter.test(agenda)) {
+                agendaList.add(copyOf(agenda));
+            }
+        }
+        return agendaList;
+    }
+
+    private static Agenda copyOf(Agenda agenda) {
+        return new Agenda(agenda.getId(), agenda.getJudul(), agenda.getDeskripsi(),
+                agenda.getTanggalWaktu(), agenda.getPrioritas());
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Kunci urutan (tanggal_waktu, id); id membuat kunci unik untuk jadwal yang sama
+     */
+    private static final class DateKey implements Comparable<DateKey> {
+        private final LocalDateTime tanggalWaktu;
+        private final int id;
+
+        DateKey(LocalDateTime tanggalWaktu, int id) {
+            this.tanggalWaktu = tanggalWaktu;
+            this.id = id;
+        }
+
+        static DateKey of(Agenda agenda) {
+            return new DateKey(agenda.getTanggalWaktu(), agenda.getId());
+        }
+
+        @Override
+        public int compareTo(DateKey other) {
+            int byTime = tanggalWaktu.compareTo(other.tanggalWaktu);
+            return byTime != 0 ? byTime : Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof DateKey && compareTo((DateKey) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return tanggalWaktu.hashCode() * 31 + id;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import util.Log;
+
+/**
+ *
+ * Maintenance database di background saat aplikasi idle:
+ * PRAGMA optimize, ANALYZE (setelah perubahan besar), incremental_vacuum bertahap
+ * dan checkpoint WAL pasif
+ * VACUUM penuh tidak pernah dijalankan otomatis (memegang lock tulis selama seluruh proses dan
+ * tidak bisa dihentikan): file lama dengan auto_vacuum berbeda dari konfigurasi (misalnya NONE),
+ * atau tanpa auto_vacuum dengan page kosong melewati fullVacuumRatio dari ukuran file, hanya
+ * dicatat ke log dan ke getFullVacuumAdvice(); VACUUM dijalankan lewat fullVacuum() secara eksplisit
+ * Idle = tidak ada query baru di QueryMetrics selama idleMs. Maintenance memakai
+ * connection sendiri di thread prioritas rendah; incremental_vacuum dijalankan per
+ * langkah kecil (transaksi pendek) dengan jeda, dan berhenti begitu ada query foreground
+ * Hasil (page yang dikembalikan, freelist sebelum/sesudah, durasi) dicatat ke log
+ * dan ke metrics sebagai operasi "maintenance"
+ *
+ * Konfigurasi (system properties):
+ * agenda.maintenance.enabled (default true), agenda.maintenance.checkIntervalMs (default 10000),
+ * agenda.maintenance.idleMs (default 30000), agenda.maintenance.intervalMs (default 3600000),
+ * agenda.maintenance.analyzeAfterRows (default 10000), agenda.maintenance.vacuumPages (default 256),
+ * agenda.maintenance.pauseMs (default 50), agenda.maintenance.fullVacuumRatio (default 0.25)
+ *
+ * @author slozoy
+ */
+public class MaintenanceScheduler {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(MaintenanceScheduler.class);
+
+    // ========== ATTRIBUTES ==========
+    private final DatabaseConfig config;
+    private final QueryMetrics metrics;
+    private final long idleNanos;
+    private final long intervalNanos;
+    private final long analyzeAfterRows;
+    private final int vacuumPages;
+    private final long pauseMillis;
+    private final double fullVacuumRatio;
+    private final long checkIntervalMillis;
+    private final AtomicLong changedRows = new AtomicLong();
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+    private final ReentrantLock passLock = new ReentrantLock();
+    private ScheduledFuture<?> ticker;
+    private volatile boolean running = true;
+    private long lastSeenQueries = -1;
+    private long lastActivityNanos = System.nanoTime();
+    private long lastRunNanos = System.nanoTime();
+    private volatile String lastReport = "(belum pernah dijalankan)";
+    private volatile Runnable idleTask;
+    private volatile String fullVacuumAdvice;
+
+    /**
+     * Constructor, konfigurasi dari system properties
+     * @param config Konfigurasi database (URL dan PRAGMA untuk connection maintenance)
+     * @param metrics Metrics untuk deteksi idle dan hasil maintenance
+     */
+    public MaintenanceScheduler(DatabaseConfig config, QueryMetrics metrics) {
+        this(config, metrics, null);
+    }
+
+    /**
+     * Constructor dengan executor bersama (misalnya satu thread untuk semua shard)
+     * @param config Konfigurasi database (URL dan PRAGMA untuk connection maintenance)
+     * @param metrics Metrics untuk deteksi idle dan hasil maintenance
+     * @param executor Executor bersama yang tidak dihentikan saat shutdown,
+     *                 atau null untuk thread sendiri
+     */
+    public MaintenanceScheduler(DatabaseConfig config, QueryMetrics metrics, ScheduledExecutorService executor) {
+        this.config = config;
+        this.metrics = metrics;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("agenda.maintenance.idleMs", 30_000));
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.getLong("agenda.maintenance.intervalMs", 3_600_000));
+        this.analyzeAfterRows = Long.getLong("agenda.maintenance.analyzeAfterRows", 10_000);
+        this.vacuumPages = Math.max(1, Integer.getInteger("agenda.maintenance.vacuumPages", 256));
+        this.pauseMillis = Long.getLong("agenda.maintenance.pauseMs", 50);
+        this.fullVacuumRatio = Double.parseDouble(
+                System.getProperty("agenda.maintenance.fullVacuumRatio", "0.25"));
+        this.checkIntervalMillis = Long.getLong("agenda.maintenance.checkIntervalMs", 10_000);
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-maintenance");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * @return true jika maintenance diaktifkan (agenda.maintenance.enabled)
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("agenda.maintenance.enabled", "true"));
+    }
+
+    // ========== LIFECYCLE ==========
+
+    /**
+     * Mulai pengecekan idle berkala
+     */
+    public synchronized void start() {
+        ticker = executor.scheduleWithFixedDelay(this::tick, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hentikan scheduler; langkah vacuum yang sedang berjalan berhenti di batas langkah berikutnya
+     * @param timeoutMillis Batas waktu menunggu
+     */
+    public synchronized void shutdown(long timeoutMillis) {
+        running = false;
+        try {
+            if (ownsExecutor) {
+                executor.shutdownNow();
+                executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+                return;
+            }
+            if (ticker != null) {
+                ticker.cancel(false);
+            }
+            // Executor bersama tetap jalan: cukup tunggu putaran yang sedang berjalan
+            if (passLock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                passLock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== TRIGGERS ==========
+
+    /**
+     * Catat perubahan data; ANALYZE dijadwalkan setelah analyzeAfterRows baris berubah
+     * @param rows Jumlah baris yang ditambah/diubah/dihapus
+     */
+    public void recordChanges(long rows) {
+        if (changedRows.addAndGet(rows) >= analyzeAfterRows) {
+            requested.set(true);
+        }
+    }
+
+    /**
+     * Minta maintenance lengkap pada saat idle berikutnya
+     * (misalnya setelah hapus semua atau import besar)
+     */
+    public void requestMaintenance() {
+        changedRows.addAndGet(analyzeAfterRows);
+        requested.set(true);
+    }
+
+    /**
+     * Tugas tambahan yang dijalankan di awal setiap putaran maintenance
+     * (sebelum ANALYZE, agar statistik mencerminkan hasilnya), misalnya pengarsipan
+     * @param task Tugas, atau null untuk menghapus
+     */
+    public void setIdleTask(Runnable task) {
+        this.idleTask = task;
+    }
+
+    /**
+     * @return Ringkasan maintenance terakhir
+     */
+    public String getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return Alasan VACUUM penuh disarankan (konversi auto_vacuum atau banyak page kosong),
+     *         atau null jika tidak perlu
+     */
+    public String getFullVacuumAdvice() {
+        return fullVacuumAdvice;
+    }
+
+    /**
+     * VACUUM penuh (blocking): menulis ulang seluruh file dan menerapkan auto_vacuum dari konfigurasi
+     * Selama berjalan, penulis lain menunggu (atau gagal setelah busy_timeout); jalankan hanya
+     * atas permintaan eksplisit saat database tidak sedang dipakai
+     * @param config Konfigurasi database
+     * @return Ringkasan hasil
+     * @throws SQLException jika VACUUM gagal
+     */
+    public static String fullVacuum(DatabaseConfig config) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DriverManager.getConnection(config.getJdbcUrl());
+             Statement stmt = conn.createStatement()) {
+            config.applyTo(conn);
+            long pagesBefore = queryLong(stmt, "PRAGMA page_count");
+            stmt.execute("PRAGMA auto_vacuum=" + config.getAutoVacuum());
+            stmt.execute("VACUUM");
+            long pagesAfter = queryLong(stmt, "PRAGMA page_count");
+            String report = String.format("VACUUM (auto_vacuum %s), pages %d -> %d, %d ms",
+                    config.getAutoVacuum(), pagesBefore, pagesAfter,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            LOG.info("Full vacuum: " + report);
+            return report;
+        }
+    }
+
+    // ========== SCHEDULER ==========
+
+    private void tick() {
+        passLock.lock();
+        try {
+            if (running) {
+                check();
+            }
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        long queries = metrics.getTotalQueries();
+        if (queries != lastSeenQueries) {
+            lastSeenQueries = queries;
+            lastActivityNanos = now;
+            return;
+        }
+        boolean due = requested.get() || now - lastRunNanos >= intervalNanos;
+        if (!due || now - lastActivityNanos < idleNanos) {
+            return;
+        }
+
+        requested.set(false);
+        Runnable task = idleTask;
+        if (task != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Idle task failed: " + e.getMessage());
+            }
+        }
+        boolean analyze = changedRows.getAndSet(0) >= analyzeAfterRows;
+        try {
+            runMaintenance(analyze);
+        } catch (SQLException e) {
+            LOG.warn("Database maintenance failed: " + e.getMessage());
+            metrics.record("maintenance", System.nanoTime() - now, 0, false);
+        }
+        lastRunNanos = System.nanoTime();
+        lastSeenQueries = metrics.getTotalQueries(); // Jangan hitung maintenance sebagai aktivitas
+    }
+
+    /**
+     * Jalankan satu putaran maintenance dengan connection sendiri
+     * @param analyze true untuk ANALYZE penuh (statistik planner) setelah perubahan besar
+     */
+    private void runMaintenance(boolean analyze) throws SQLException {
+        long start = System.nanoTime();
+        long baseline = metrics.getTotalQueries();
+        try (Connection conn = DriverManager.getConnection(config.getJdbcUrl());
+             Statement stmt = conn.createStatement()) {
+            // Busy timeout pendek: lebih baik melewatkan langkah daripada menunggu foreground
+            stmt.execute("PRAGMA busy_timeout=100");
+
+            if (analyze) {
+                stmt.execute("PRAGMA analysis_limit=1000"); // ANALYZE berbasis sampel, bukan full scan
+                stmt.execute("ANALYZE");
+            }
+            stmt.execute("PRAGMA optimize");
+
+            long pageSize = queryLong(stmt, "PRAGMA page_size");
+            long freelistBefore = queryLong(stmt, "PRAGMA freelist_count");
+            long autoVacuum = queryLong(stmt, "PRAGMA auto_vacuum");
+            boolean interrupted = false;
+            String advice = null;
+            if (autoVacuum == 2) {
+                // INCREMENTAL: kembalikan page kosong per langkah kecil
+                long freelist = freelistBefore;
+                while (freelist > 0 && running) {
+                    if (metrics.getTotalQueries() != baseline) {
+                        interrupted = true; // Ada query foreground, lanjutkan di putaran berikutnya
+                        requested.set(true);
+                        break;
+                    }
+                    stmt.execute("PRAGMA incremental_vacuum(" + vacuumPages + ")");
+                    freelist = queryLong(stmt, "PRAGMA freelist_count");
+                    sleep(pauseMillis);
+                }
+            } else {
+                // PRAGMA auto_vacuum di DatabaseConfig.applyTo tidak berlaku untuk file yang sudah ada
+                long wantedMode = autoVacuumMode(config.getAutoVacuum());
+                long pageCount = queryLong(stmt, "PRAGMA page_count");
+                boolean convert = wantedMode != autoVacuum;
+                boolean bloated = freelistBefore > 0 && freelistBefore >= pageCount * fullVacuumRatio;
+                if (convert) {
+                    advice = "auto_vacuum is " + autoVacuum + ", configured " + config.getAutoVacuum();
+                } else if (bloated) {
+                    advice = freelistBefore + " of " + pageCount + " page(s) are free";
+                } else if (freelistBefore > 0) {
+                    LOG.debug(() -> "auto_vacuum is not INCREMENTAL, " + freelistBefore
+                            + " free page(s) below the full VACUUM threshold");
+                }
+            }
+            stmt.execute("PRAGMA wal_checkpoint(PASSIVE)");
+
+            long freelistAfter = queryLong(stmt, "PRAGMA freelist_count");
+            long reclaimed = Math.max(0, freelistBefore - freelistAfter);
+            long elapsed = System.nanoTime() - start;
+            metrics.record("maintenance", elapsed, reclaimed, true);
+            if (advice != null && fullVacuumAdvice == null) {
+                LOG.warn("Full VACUUM recommended for " + config.getPath() + " (" + advice
+                        + "); not run automatically, use fullVacuum() when the database is not in use");
+            }
+            fullVacuumAdvice = advice;
+            lastReport = String.format("%s%s, reclaimed %d page(s) (%d KiB), freelist %d -> %d, %d ms%s",
+                    analyze ? "ANALYZE + " : "", "optimize", reclaimed, reclaimed * pageSize / 1024,
+                    freelistBefore, freelistAfter, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    interrupted ? " (paused for foreground activity)" : "");
+            LOG.info("Database maintenance: " + lastReport);
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Nilai PRAGMA auto_vacuum untuk nama mode (NONE = 0, FULL = 1, INCREMENTAL = 2)
+     */
+    private static long autoVacuumMode(String name) {
+        switch (name) {
+            case "FULL":
+                return 1;
+            case "INCREMENTAL":
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import util.Log;
+import util.jfr.DaoCallEvent;
+
+/**
+ *
+ * Metrics per operasi database: jumlah panggilan, error, baris yang dikembalikan
+ * dan histogram latensi (p50/p99/max)
+ * Counter memakai LongAdder dan histogram log-linear tanpa lock, sehingga
+ * overhead per query hanya beberapa operasi atomic
+ * Jika JFR aktif, setiap Timer juga menghasilkan event agenda.DaoCall
+ *
+ * @author slozoy
+ */
+public class QueryMetrics implements DatabaseMetricsMXBean {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(QueryMetrics.class);
+    // Histogram log-linear: 8 sub-bucket per pangkat dua (presisi ~12.5%)
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    // ========== ATTRIBUTES ==========
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // ========== RECORDING ==========
+
+    /**
+     * Mulai mengukur satu operasi
+     * @param operation Nama operasi (misalnya "searchAgenda")
+     * @return Timer yang harus diakhiri dengan stop() atau fail()
+     */
+    public Timer start(String operation) {
+        DaoCallEvent event = new DaoCallEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.begin();
+        } else {
+            event = null; // Tanpa recording, tidak ada biaya selain cek isEnabled
+        }
+        return new Timer(operations.computeIfAbsent(operation, k -> new OperationStats()),
+                System.nanoTime(), event);
+    }
+
+    /**
+     * Catat operasi yang durasinya diukur di luar Timer
+     * @param operation Nama operasi
+     * @param elapsedNanos Durasi dalam nanodetik
+     * @param rows Jumlah baris
+     * @param success true jika berhasil
+     */
+    public void record(String operation, long elapsedNanos, long rows, boolean success) {
+        operations.computeIfAbsent(operation, k -> new OperationStats())
+                .record(elapsedNanos, rows, success);
+    }
+
+    /**
+     * Tambah satu pada counter (misalnya hit/miss cache)
+     * @param counter Nama counter
+     */
+    public void increment(String counter) {
+        counters.computeIfAbsent(counter, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Tambah nilai pada counter (misalnya jumlah byte)
+     * @param counter Nama counter
+     * @param delta Nilai yang ditambahkan
+     */
+    public void add(String counter, long delta) {
+        counters.computeIfAbsent(counter, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * @param counter Nama counter
+     * @return Nilai counter (0 jika belum pernah dicatat)
+     */
+    public long getCounter(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    // ========== SNAPSHOT API ==========
+
+    /**
+     * Snapshot semua metrics, terurut berdasarkan nama operasi
+     * @return Map nama operasi ke snapshot
+     */
+    @Override
+    public Map<String, OperationSnapshot> getOperations() {
+        Map<String, OperationSnapshot> snapshot = new TreeMap<>();
+        for (Map.Entry<String, OperationStats> entry : operations.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshot satu operasi
+     * @param operation Nama operasi
+     * @return Snapshot, atau null jika operasi belum pernah dicatat
+     */
+    public OperationSnapshot snapshot(String operation) {
+        OperationStats stats = operations.get(operation);
+        return stats == null ? null : stats.snapshot();
+    }
+
+    @Override
+    public long getTotalQueries() {
+        long total = 0;
+        for (OperationStats stats : operations.values()) {
+            total += stats.count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().sum());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public double getStatementCacheHitRate() {
+        long hits = getCounter(StatementCache.HIT_COUNTER);
+        long total = hits + getCounter(StatementCache.MISS_COUNTER);
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, OperationSnapshot> entry : getOperations().entrySet()) {
+            report.append(entry.getKey()).append(": ").append(entry.getValue())
+                  .append(System.lineSeparator());
+        }
+        for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+            report.append(entry.getKey()).append(": ").append(entry.getValue())
+                  .append(System.lineSeparator());
+        }
+        if (getCounter(StatementCache.HIT_COUNTER) + getCounter(StatementCache.MISS_COUNTER) > 0) {
+            report.append(String.format("statementCache.hitRate: %.1f%%", getStatementCacheHitRate() * 100))
+                  .append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        operations.clear();
+        counters.clear();
+    }
+
+    // ========== JMX ==========
+
+    /**
+     * Daftarkan metrics ke platform MBean server
+     * @param name ObjectName, misalnya "database:type=DatabaseHelper,name=agenda"
+     */
+    public void registerMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+        } catch (JMException e) {
+            LOG.warn("Failed to register metrics MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    // ========== HISTOGRAM ==========
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Nilai batas atas bucket (estimasi konservatif untuk percentile)
+     */
+    private static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket + 1) * width) - 1;
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Pengukur durasi satu operasi
+     */
+    public static final class Timer {
+        private final OperationStats stats;
+        private final long startNanos;
+        private final DaoCallEvent event;
+
+        private Timer(OperationStats stats, long startNanos, DaoCallEvent event) {
+            this.stats = stats;
+            this.startNanos = startNanos;
+            this.event = event;
+        }
+
+        /**
+         * Akhiri pengukuran untuk operasi yang berhasil
+         * @param rows Jumlah baris yang dikembalikan/diubah
+         * @return Durasi operasi dalam nanodetik
+         */
+        public long stop(long rows) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            stats.record(elapsedNanos, rows, true);
+            commitEvent(rows, true);
+            return elapsedNanos;
+        }
+
+        /**
+         * Akhiri pengukuran untuk operasi yang gagal
+         */
+        public void fail() {
+            stats.record(System.nanoTime() - startNanos, 0, false);
+            commitEvent(0, false);
+        }
+
+        private void commitEvent(long rows, boolean success) {
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.rows = rows;
+                    event.success = success;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Counter dan histogram untuk satu operasi
+     */
+    private static final class OperationStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_COUNT);
+
+        void record(long elapsedNanos, long rowCount, boolean success) {
+            count.increment();
+            if (!success) {
+                errors.increment();
+            }
+            rows.add(rowCount);
+            totalNanos.add(elapsedNanos);
+            histogram.incrementAndGet(bucketOf(elapsedNanos));
+            long max = maxNanos.get();
+            while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        OperationSnapshot snapshot() {
+            long[] buckets = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = histogram.get(i);
+                total += buckets[i];
+            }
+            long calls = count.sum();
+            long max = maxNanos.get();
+            return new OperationSnapshot(calls, errors.sum(), rows.sum(),
+                    calls == 0 ? 0 : totalNanos.sum() / calls / 1000,
+                    Math.min(max, percentile(buckets, total, 0.50)) / 1000,
+                    Math.min(max, percentile(buckets, total, 0.99)) / 1000,
+                    max / 1000);
+        }
+
+        private static long percentile(long[] buckets, long total, double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return bucketUpperBound(buckets.length - 1);
+        }
+    }
+
+    /**
+     * Snapshot immutable metrics satu operasi (latensi dalam mikrodetik)
+     */
+    public static final class OperationSnapshot {
+        private final long count;
+        private final long errors;
+        private final long rows;
+        private final long meanMicros;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        @ConstructorProperties({"count", "errors", "rows", "meanMicros",
+                "p50Micros", "p99Micros", "maxMicros"})
+        public OperationSnapshot(long count, long errors, long rows, long meanMicros,
+                                 long p50Micros, long p99Micros, long maxMicros) {
+            this.count = count;
+            this.errors = errors;
+            this.rows = rows;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getMeanMicros() {
+            return meanMicros;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", errors=" + errors + ", rows=" + rows
+                    + ", mean=" + meanMicros + "us, p50=" + p50Micros + "us, p99=" + p99Micros
+                    + "us, max=" + maxMicros + "us";
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ *
+ * Cache LRU untuk hasil pencarian SQL (index trigram nonaktif atau keyword kosong),
+ * dikunci berdasarkan (keyword, prioritas). Pencarian yang lebih sempit (keyword
+ * lebih panjang) disaring dari hasil cache yang lebih luas di memori tanpa query
+ * ke database. Hasil yang lebih besar dari agenda.searchCache.maxRows tidak disimpan
+ * supaya cache tidak menahan salinan seluruh tabel. Cache dikosongkan setiap ada
+ * operasi tulis; hit/refine/miss dicatat sebagai counter QueryMetrics
+ *
+ * @author slozoy
+ */
+public class SearchResultCache {
+
+    // ========== CONSTANTS ==========
+    private static final int DEFAULT_MAX_ENTRIES = 64;
+    private static final int DEFAULT_MAX_ROWS = 2_000;
+    private static final String HIT_COUNTER = "searchCache.hit";
+    private static final String REFINE_COUNTER = "searchCache.refine";
+    private static final String MISS_COUNTER = "searchCache.miss";
+
+    // ========== ATTRIBUTES ==========
+    private final int maxEntries;
+    private final int maxRows;
+    private final Map<Key, List<Agenda>> entries;
+    private final QueryMetrics metrics;
+    private long generation;
+
+    /**
+     * Constructor dengan kapasitas default (agenda.searchCache.size, agenda.searchCache.maxRows)
+     * @param metrics Tujuan counter hit/refine/miss
+     */
+    public SearchResultCache(QueryMetrics metrics) {
+        this(Integer.getInteger("agenda.searchCache.size", DEFAULT_MAX_ENTRIES),
+                Integer.getInteger("agenda.searchCache.maxRows", DEFAULT_MAX_ROWS), metrics);
+    }
+
+    /**
+     * Constructor dengan kapasitas custom
+     * @param maxEntries Jumlah maksimum entry di cache
+     * @param maxRows Jumlah maksimum agenda per entry
+     * @param metrics Tujuan counter hit/refine/miss
+     */
+    public SearchResultCache(int maxEntries, int maxRows, QueryMetrics metrics) {
+        this.maxEntries = maxEntries;
+        this.maxRows = maxRows;
+        this.metrics = metrics;
+        this.entries = new LinkedHashMap<Key, List<Agenda>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Agenda>> eldest) {
+                return size() > SearchResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    // ========== CACHE OPERATIONS ==========
+
+    /**
+     * Ambil hasil dari cache, atau saring dari hasil cache yang lebih luas
+     * @param keyword Kata kunci (kosong = semua agenda)
+     * @param prioritas Filter prioritas, atau null untuk semua
+     * @return List agenda (objek tidak boleh dimodifikasi), atau null jika miss
+     */
+    public synchronized List<Agenda> get(String keyword, String prioritas) {
+        Key key = new Key(keyword, prioritas);
+        List<Agenda> cached = entries.get(key);
+        if (cached != null) {
+            metrics.increment(HIT_COUNTER);
+            return new ArrayList<>(cached);
+        }
+
+        List<Agenda> superset = findSuperset(key);
+        if (superset == null) {
+            metrics.increment(MISS_COUNTER);
+            return null;
+        }
+
+        List<Agenda> refined = new ArrayList<>();
+        for (Agenda agenda : superset) {
+            if (matches(agenda, key)) {
+                refined.add(agenda);
+            }
+        }
+        entries.put(key, refined); // Tidak lebih besar dari superset-nya
+        metrics.increment(REFINE_COUNTER);
+        return new ArrayList<>(refined);
+    }
+
+    /**
+     * Simpan hasil pencarian ke cache
+     * Hasil diabaikan jika cache sudah di-invalidate sejak query dimulai
+     * (operasi tulis dari thread lain selesai di tengah query) atau lebih dari maxRows
+     * @param keyword Kata kunci
+     * @param prioritas Filter prioritas, atau null
+     * @param results Hasil pencarian
+     * @param queryGeneration Nilai getGeneration() sebelum query dijalankan
+     */
+    public synchronized void put(String keyword, String prioritas, List<Agenda> results,
+                                 long queryGeneration) {
+        if (queryGeneration == generation && results.size() <= maxRows) {
+            entries.put(new Key(keyword, prioritas), new ArrayList<>(results));
+        }
+    }
+
+    /**
+     * Generasi cache, bertambah setiap invalidate
+     * @return Generasi saat ini
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Kosongkan cache (dipanggil setelah operasi tulis)
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * Statistik cache untuk debugging
+     * @return String ringkasan hit/refine/miss
+     */
+    public synchronized String getStats() {
+        return "hits=" + metrics.getCounter(HIT_COUNTER)
+                + ", refinements=" + metrics.getCounter(REFINE_COUNTER)
+                + ", misses=" + metrics.getCounter(MISS_COUNTER)
+                + ", entries=" + entries.size();
+    }
+
+    // ========== HELPER METHODS ==========
+
+    /**
+     * Cari entry cache terkecil yang pasti mencakup semua hasil key:
+     * keyword-nya substring dari keyword baru dan prioritasnya sama atau semua
+     */
+    private List<Agenda> findSuperset(Key key) {
+        if (hasWildcard(key.needle)) {
+            return null;
+        }
+        List<Agenda> best = null;
+        for (Map.Entry<Key, List<Agenda>> entry : entries.entrySet()) {
+            Key candidate = entry.getKey();
+            boolean prioritasCovers = candidate.prioritas == null
+                    || candidate.prioritas.equals(key.prioritas);
+            if (prioritasCovers && !hasWildcard(candidate.needle)
+                    && key.needle.contains(candidate.needle)
+                    && (best == null || entry.getValue().size() < best.size())) {
+                best = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Semantik sama dengan LIKE '%keyword%' (case-insensitive) dan prioritas = ?
+     */
+    private static boolean matches(Agenda agenda, Key key) {
+        if (key.prioritas != null && !key.prioritas.equals(agenda.getPrioritas())) {
+            return false;
+        }
+        if (key.needle.isEmpty()) {
+            return true;
+        }
+        return contains(agenda.getJudul(), key.needle) || contains(agenda.getDeskripsi(), key.needle);
+    }
+
+    private static boolean contains(String text, String needle) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private static boolean hasWildcard(String keyword) {
+        return keyword.indexOf('%') >= 0 || keyword.indexOf('_') >= 0;
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Key cache: keyword (lowercase) dan prioritas
+     */
+    private static class Key {
+        private final String needle;
+        private final String prioritas;
+
+        Key(String keyword, String prioritas) {
+            this.needle = keyword == null ? "" : keyword.toLowerCase(Locale.ROOT);
+            this.prioritas = prioritas;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return needle.equals(other.needle) && Objects.equals(prioritas, other.prioritas);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(needle, prioritas);
+        }
+    }
+}
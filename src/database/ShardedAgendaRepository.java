@@ -0,0 +1,939 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import model.Agenda;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import util.Log;
+
+/**
+ *
+ * Storage engine ter-shard: satu file SQLite per tahun (atau per bulan) berdasarkan
+ * tanggal_waktu, masing-masing dikelola DatabaseHelper sendiri (writer, maintenance dan
+ * snapshot per file). Maintenance dan snapshot semua shard berjalan di satu executor
+ * bersama; writer shard dibuat saat tulis pertama. File shard yang sudah ada baru dibuka
+ * saat pertama kali dibutuhkan
+ * ID tetap unik global: sqlite_sequence setiap shard dimulai dari blok ID shard itu
+ * ((tahun - 1970) * 10.000.000, atau 1.000.000 per bulan), jadi shard pemilik
+ * sebuah ID dihitung langsung dari ID-nya tanpa lookup, kecuali agenda yang pindah shard
+ * (dicatat di direktori kecil <nama>-directory.db, dimuat ke memori). Trigger di setiap shard menolak
+ * insert jika blok ID shard sudah habis. Agenda dengan tanggal di luar jangkauan shard
+ * (sebelum 1970, atau blok ID melewati batas int) ditolak dan dicatat ke log
+ * Query dengan tanggal atau rentang tanggal hanya membaca shard yang beririsan.
+ * Query lain dikirim ke semua shard secara paralel (virtual thread) lalu digabung:
+ * hasil urut tanggal cukup disambung sesuai urutan shard, urutan lain di-merge k-way.
+ * Pencarian fuzzy memakai satu index gabungan agar ranking lintas shard konsisten,
+ * dibangun saat pencarian fuzzy pertama (shard sendiri tidak punya index fuzzy)
+ * Update yang memindahkan tanggal ke shard lain menjadi insert + delete dengan ID yang sama
+ *
+ * Konfigurasi (system properties):
+ * agenda.shard.dir (default shards), agenda.shard.granularity (year | month, default year)
+ * Profil PRAGMA, maintenance, arsip dan backup memakai pengaturan database tunggal
+ *
+ * @author slozoy
+ */
+public class ShardedAgendaRepository implements AgendaRepository {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(ShardedAgendaRepository.class);
+    private static final int EPOCH_YEAR = 1970;
+    private static final int YEAR_ID_BLOCK = 10_000_000;
+    private static final int MONTH_ID_BLOCK = 1_000_000;
+
+    // ========== ATTRIBUTES ==========
+    private final DatabaseConfig baseConfig;
+    private final Path dir;
+    private final String baseName;
+    private final boolean monthly;
+    private final int idBlock;
+    private final int maxSlot;
+    // Semua shard yang punya file (slot), dan shard yang sudah dibuka
+    private final NavigableSet<Integer> slots = new ConcurrentSkipListSet<>();
+    private final NavigableMap<Integer, DatabaseHelper> shards = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Object> openLocks = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("agenda-shard-", 0).factory());
+    private final ScheduledExecutorService background = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "shard-maintenance");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final FuzzySearchIndex fuzzyIndex = new FuzzySearchIndex();
+    // Index fuzzy dibangun ulang saat dibutuhkan; event shard ditahan selama rebuild
+    private final Object fuzzyLock = new Object();
+    private boolean fuzzyStale = true;
+    private final List<AgendaChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final AgendaChangeListener forwarder = new ShardEventForwarder();
+    private final QueryMetrics metrics = new QueryMetrics();
+    // Agenda yang pindah shard: ID -> shard (selain shard blok ID-nya)
+    private final Map<Integer, Integer> movedIds = new ConcurrentHashMap<>();
+    private final Object directoryLock = new Object();
+    private Connection directory;
+    // ID yang sedang dipindahkan: event insert/delete dari shard tidak diteruskan
+    private final Set<Integer> moving = ConcurrentHashMap.newKeySet();
+    private final Object moveLock = new Object();
+
+    /**
+     * Constructor, mendaftar shard yang sudah ada di agenda.shard.dir (belum dibuka)
+     * @param baseConfig Konfigurasi database tunggal (profil PRAGMA; nama file dipakai
+     *                   sebagai awalan nama shard, misalnya agenda-2024.db)
+     * @throws IllegalArgumentException jika agenda.shard.granularity tidak dikenal
+     */
+    public ShardedAgendaRepository(DatabaseConfig baseConfig) {
+        this.baseConfig = baseConfig;
+        this.dir = Paths.get(System.getProperty("agenda.shard.dir", "shards"));
+        String fileName = Paths.get(baseConfig.getPath()).getFileName().toString();
+        this.baseName = fileName.endsWith(".db") ? fileName.substring(0, fileName.length() - 3) : fileName;
+        String granularity = System.getProperty("agenda.shard.granularity", "year");
+        switch (granularity) {
+            case "year":
+                this.monthly = false;
+                break;
+            case "month":
+                this.monthly = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown agenda.shard.granularity: " + granularity);
+        }
+        this.idBlock = monthly ? MONTH_ID_BLOCK : YEAR_ID_BLOCK;
+        this.maxSlot = Integer.MAX_VALUE / idBlock - 1;
+
+        findExistingShards();
+        openDirectory();
+        LOG.info("Sharded storage ready: " + slots.size() + " " + granularity + " shard(s) in "
+                + dir.toAbsolutePath());
+    }
+
+    // ========== CREATE ==========
+
+    @Override
+    public boolean insertAgenda(Agenda agenda) {
+        QueryMetrics.Timer timer = metrics.start("insertAgenda");
+        DatabaseHelper shard = shardFor(agenda);
+        boolean inserted = shard != null && shard.insertAgenda(agenda);
+        timer.stop(inserted ? 1 : 0);
+        return inserted;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> insertAgendaAsync(Agenda agenda) {
+        DatabaseHelper shard = shardFor(agenda);
+        if (shard == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Date outside shardable range: " + agenda.getTanggalWaktu()));
+        }
+        return shard.insertAgendaAsync(agenda);
+    }
+
+    /**
+     * Agenda dikelompokkan per shard (urutan dalam kelompok dipertahankan),
+     * lalu setiap kelompok di-insert sebagai batch di shard-nya secara paralel
+     * Agenda dengan tanggal di luar jangkauan shard dilewati (tidak dihitung)
+     */
+    @Override
+    public int insertAgendaBatch(List<Agenda> agendaList) {
+        QueryMetrics.Timer timer = metrics.start("insertAgendaBatch");
+        Map<DatabaseHelper, List<Agenda>> groups = new LinkedHashMap<>();
+        for (Agenda agenda : agendaList) {
+            DatabaseHelper shard = shardFor(agenda);
+            if (shard != null) {
+                groups.computeIfAbsent(shard, k -> new ArrayList<>()).add(agenda);
+            }
+        }
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (Map.Entry<DatabaseHelper, List<Agenda>> group : groups.entrySet()) {
+            batches.add(CompletableFuture.supplyAsync(
+                    () -> group.getKey().insertAgendaBatch(group.getValue()), executor));
+        }
+        int inserted = 0;
+        for (CompletableFuture<Integer> batch : batches) {
+            inserted += batch.join();
+        }
+        timer.stop(inserted);
+        return inserted;
+    }
+
+    // ========== READ ==========
+
+    @Override
+    public List<Agenda> getAllAgenda() {
+        QueryMetrics.Timer timer = metrics.start("getAllAgenda");
+        List<Agenda> agendaList = concat(fanOut(slots, DatabaseHelper::getAllAgenda));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    /**
+     * Shard dihitung dari blok ID, hanya satu shard yang dibaca
+     */
+    @Override
+    public Agenda getAgendaById(int id) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaById");
+        DatabaseHelper shard = shardOfId(id);
+        Agenda agenda = shard == null ? null : shard.getAgendaById(id);
+        timer.stop(agenda == null ? 0 : 1);
+        return agenda;
+    }
+
+    @Override
+    public List<Agenda> getAgendaByDate(LocalDateTime tanggal) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaByDate");
+        int slot = slotOf(tanggal);
+        DatabaseHelper shard = slot < 0 ? null : existingShard(slot);
+        List<Agenda> agendaList = shard == null ? new ArrayList<>() : shard.getAgendaByDate(tanggal);
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    /**
+     * Hanya shard yang beririsan dengan [from, to) yang dibaca
+     */
+    @Override
+    public List<Agenda> getAgendaBetween(LocalDateTime from, LocalDateTime to) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaBetween");
+        if (!from.isBefore(to)) {
+            timer.stop(0);
+            return new ArrayList<>();
+        }
+        long first = Math.max(0, rawSlotOf(from));
+        long last = Math.min(maxSlot, rawSlotOf(to.minusNanos(1)));
+        if (first > last) {
+            timer.stop(0);
+            return new ArrayList<>();
+        }
+        Collection<Integer> targets = slots.subSet((int) first, true, (int) last, true);
+        List<Agenda> agendaList = concat(fanOut(targets, shard -> shard.getAgendaBetween(from, to)));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> searchAgenda(String keyword) {
+        QueryMetrics.Timer timer = metrics.start("searchAgenda");
+        List<Agenda> agendaList = concat(fanOut(slots, shard -> shard.searchAgenda(keyword)));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> searchAgenda(String keyword, String prioritas) {
+        return searchAgenda(keyword, prioritas, false);
+    }
+
+    @Override
+    public List<Agenda> searchAgenda(String keyword, String prioritas, boolean includeArchive) {
+        QueryMetrics.Timer timer = metrics.start(includeArchive ? "searchAgenda.archive" : "searchAgenda");
+        List<Agenda> agendaList = concat(fanOut(slots,
+                shard -> shard.searchAgenda(keyword, prioritas, includeArchive)));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> getAgendaSorted(String keyword, String prioritas,
+                                        AgendaSortField sortField, boolean ascending) {
+        return getAgendaSorted(keyword, prioritas, sortField, ascending, false);
+    }
+
+    /**
+     * Setiap shard mengurutkan dengan ORDER BY (index), lalu hasilnya di-merge k-way
+     * Urutan tanggal tidak perlu merge: rentang tanggal shard tidak tumpang tindih
+     */
+    @Override
+    public List<Agenda> getAgendaSorted(String keyword, String prioritas,
+                                        AgendaSortField sortField, boolean ascending,
+                                        boolean includeArchive) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaSorted");
+        Collection<Integer> targets = ascending ? slots : slots.descendingSet();
+        List<List<Agenda>> parts = fanOut(targets,
+                shard -> shard.getAgendaSorted(keyword, prioritas, sortField, ascending, includeArchive));
+        List<Agenda> agendaList;
+        if (sortField == AgendaSortField.TANGGAL) {
+            agendaList = concat(parts);
+        } else {
+            Comparator<Agenda> order = sortField.comparator().thenComparingInt(Agenda::getId);
+            agendaList = merge(parts, ascending ? order : order.reversed());
+        }
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public List<Agenda> fuzzySearchAgenda(String keyword) {
+        QueryMetrics.Timer timer = metrics.start("fuzzySearchAgenda");
+        ensureFuzzyIndex();
+        List<Agenda> ranked = fuzzyIndex.search(keyword);
+        if (ranked != null) {
+            timer.stop(ranked.size());
+            return ranked;
+        }
+        return searchAgenda(keyword);
+    }
+
+    @Override
+    public List<Agenda> getAgendaByPrioritas(String prioritas) {
+        QueryMetrics.Timer timer = metrics.start("getAgendaByPrioritas");
+        List<Agenda> agendaList = concat(fanOut(slots,
+                shard -> shard.getAgendaByPrioritas(prioritas)));
+        timer.stop(agendaList.size());
+        return agendaList;
+    }
+
+    @Override
+    public int getTotalAgenda() {
+        return getTotalAgenda(false);
+    }
+
+    @Override
+    public int getTotalAgenda(boolean includeArchive) {
+        int total = 0;
+        for (int count : fanOut(slots, shard -> shard.getTotalAgenda(includeArchive))) {
+            total += count;
+        }
+        return total;
+    }
+
+    // ========== UPDATE / DELETE ==========
+
+    /**
+     * Jika tanggal baru berada di shard lain, agenda dipindahkan dengan ID yang sama:
+     * insert di shard tujuan, catat di direktori, lalu delete di shard asal (tabel utama
+     * atau arsip). Jika salah satu langkah gagal, langkah sebelumnya dibatalkan.
+     * Agenda arsip yang dipindah masuk tabel utama shard tujuan dan diarsip lagi
+     * oleh maintenance jika tanggalnya sudah lewat batas arsip.
+     * Listener hanya menerima agendaUpdated
+     */
+    @Override
+    public boolean updateAgenda(Agenda agenda) {
+        QueryMetrics.Timer timer = metrics.start("updateAgenda");
+        DatabaseHelper source = shardOfId(agenda.getId());
+        if (source == null) {
+            timer.stop(0);
+            return false;
+        }
+        DatabaseHelper target = shardFor(agenda);
+        if (target == null) {
+            timer.stop(0);
+            return false;
+        }
+        boolean updated;
+        if (source == target) {
+            updated = source.updateAgenda(agenda);
+        } else {
+            updated = move(agenda, source, target);
+        }
+        timer.stop(updated ? 1 : 0);
+        return updated;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateAgendaAsync(Agenda agenda) {
+        DatabaseHelper source = shardOfId(agenda.getId());
+        int slot = slotOf(agenda.getTanggalWaktu());
+        if (source != null && slot >= 0 && source == existingShard(slot)) {
+            return source.updateAgendaAsync(agenda);
+        }
+        // Perpindahan shard menunggu dua writer: jangan di thread pemanggil (EDT)
+        return CompletableFuture.supplyAsync(() -> updateAgenda(agenda), executor);
+    }
+
+    @Override
+    public boolean deleteAgenda(int id) {
+        QueryMetrics.Timer timer = metrics.start("deleteAgenda");
+        DatabaseHelper shard = shardOfId(id);
+        boolean deleted = shard != null && shard.deleteAgenda(id);
+        if (deleted) {
+            forgetMove(id);
+        }
+        timer.stop(deleted ? 1 : 0);
+        return deleted;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAgendaAsync(int id) {
+        DatabaseHelper shard = shardOfId(id);
+        if (shard == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return shard.deleteAgendaAsync(id).thenApply(deleted -> {
+            if (deleted) {
+                forgetMove(id);
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Kosongkan semua shard (file shard tetap ada)
+     */
+    @Override
+    public boolean deleteAllAgenda() {
+        QueryMetrics.Timer timer = metrics.start("deleteAllAgenda");
+        boolean deleted = true;
+        for (boolean result : fanOut(slots, DatabaseHelper::deleteAllAgenda)) {
+            deleted &= result;
+        }
+        if (deleted) {
+            clearDirectory();
+        }
+        timer.stop(0);
+        return deleted;
+    }
+
+    // ========== ARCHIVE ==========
+
+    /**
+     * Hanya shard yang rentang tanggalnya dimulai sebelum cutoff yang diproses
+     */
+    @Override
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        long last = Math.min(maxSlot, rawSlotOf(cutoff));
+        if (last < 0) {
+            return 0;
+        }
+        int total = 0;
+        for (int moved : fanOut(slots.headSet((int) last, true),
+                shard -> shard.archiveOlderThan(cutoff))) {
+            total += moved;
+        }
+        return total;
+    }
+
+    // ========== BACKUP ==========
+
+    /**
+     * Backup online semua shard (masing-masing ke file sendiri di agenda.backup.dir)
+     * @return Future berisi path file backup per shard
+     */
+    public CompletableFuture<List<Path>> backupAsync() {
+        List<CompletableFuture<Path>> backups = new ArrayList<>();
+        for (int slot : slots) {
+            backups.add(existingShard(slot).backupAsync());
+        }
+        return CompletableFuture.allOf(backups.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<Path> files = new ArrayList<>();
+            for (CompletableFuture<Path> backup : backups) {
+                files.add(backup.join());
+            }
+            return files;
+        });
+    }
+
+    /**
+     * @return Jumlah shard (file), termasuk yang belum dibuka
+     */
+    public int getShardCount() {
+        return slots.size();
+    }
+
+    // ========== LISTENERS & LIFECYCLE ==========
+
+    @Override
+    public void addChangeListener(AgendaChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(AgendaChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Metrics di level repository (termasuk waktu fan-out dan merge);
+     * setiap shard punya metrics sendiri di DatabaseHelper-nya
+     */
+    @Override
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void closeConnection() {
+        for (DatabaseHelper shard : shards.values()) {
+            shard.removeChangeListener(forwarder);
+            shard.closeConnection();
+        }
+        executor.shutdown();
+        background.shutdown();
+        synchronized (directoryLock) {
+            try {
+                if (directory != null) {
+                    directory.close();
+                }
+            } catch (SQLException e) {
+                LOG.warn("Failed to close shard directory: " + e.getMessage());
+            }
+        }
+    }
+
+    // ========== SHARD ROUTING ==========
+
+    /**
+     * Shard untuk tanggal agenda, dibuat jika belum ada
+     * @return Shard, atau null (dicatat ke log) jika tanggal di luar jangkauan shard
+     */
+    private DatabaseHelper shardFor(Agenda agenda) {
+        int slot = slotOf(agenda.getTanggalWaktu());
+        if (slot < 0) {
+            LOG.error("Agenda date outside shardable range (" + EPOCH_YEAR + " - "
+                    + lastShardableYear() + "): " + agenda.getTanggalWaktu());
+            return null;
+        }
+        return shard(slot, true);
+    }
+
+    /**
+     * Shard pemilik ID: shard tujuan jika agenda pernah dipindah, selain itu dari
+     * blok ID (blok shard n: n * idBlock + 1 sampai (n + 1) * idBlock)
+     * @return Shard, atau null jika belum ada
+     */
+    private DatabaseHelper shardOfId(int id) {
+        return id > 0 ? existingShard(slotOfId(id)) : null;
+    }
+
+    private int slotOfId(int id) {
+        Integer moved = movedIds.get(id);
+        return moved != null ? moved : homeSlotOf(id);
+    }
+
+    private int homeSlotOf(int id) {
+        return (id - 1) / idBlock;
+    }
+
+    /**
+     * Shard yang sudah punya file (dibuka jika belum)
+     * @return Shard, atau null jika belum ada
+     */
+    private DatabaseHelper existingShard(int slot) {
+        return shard(slot, false);
+    }
+
+    /**
+     * Buka shard saat pertama kali dibutuhkan; shard berbeda bisa dibuka paralel
+     * @param create true untuk membuat file shard baru jika belum ada
+     */
+    private DatabaseHelper shard(int slot, boolean create) {
+        DatabaseHelper shard = shards.get(slot);
+        if (shard != null || (!create && !slots.contains(slot))) {
+            return shard;
+        }
+        synchronized (openLocks.computeIfAbsent(slot, k -> new Object())) {
+            shard = shards.get(slot);
+            if (shard == null) {
+                shard = openShard(slot);
+                shards.put(slot, shard);
+                slots.add(slot);
+            }
+            return shard;
+        }
+    }
+
+    /**
+     * Nomor shard: tahun (atau bulan) sejak 1970, juga nomor blok ID shard
+     * @return Nomor shard, atau -1 jika blok ID di luar jangkauan int
+     */
+    private int slotOf(LocalDateTime tanggalWaktu) {
+        long slot = rawSlotOf(tanggalWaktu);
+        return slot < 0 || slot > maxSlot ? -1 : (int) slot;
+    }
+
+    /**
+     * Nomor shard tanpa cek jangkauan (untuk membatasi rentang query)
+     */
+    private long rawSlotOf(LocalDateTime tanggalWaktu) {
+        long slot = tanggalWaktu.getYear() - EPOCH_YEAR;
+        if (monthly) {
+            slot = slot * 12 + tanggalWaktu.getMonthValue() - 1;
+        }
+        return slot;
+    }
+
+    private int lastShardableYear() {
+        return EPOCH_YEAR + (monthly ? maxSlot / 12 : maxSlot);
+    }
+
+    private String shardName(int slot) {
+        if (monthly) {
+            return String.format("%s-%04d-%02d.db", baseName, EPOCH_YEAR + slot / 12, slot % 12 + 1);
+        }
+        return String.format("%s-%04d.db", baseName, EPOCH_YEAR + slot);
+    }
+
+    private void findExistingShards() {
+        Pattern pattern = Pattern.compile(Pattern.quote(baseName) + "-(\\d{4})"
+                + (monthly ? "-(\\d{2})" : "") + "\\.db");
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, baseName + "-*.db")) {
+                for (Path file : stream) {
+                    Matcher matcher = pattern.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        int slot = Integer.parseInt(matcher.group(1)) - EPOCH_YEAR;
+                        if (monthly) {
+                            slot = slot * 12 + Integer.parseInt(matcher.group(2)) - 1;
+                        }
+                        slots.add(slot);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Failed to read shard directory " + dir.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Buka (atau buat) file shard, mulai sqlite_sequence dari blok ID shard dan pasang
+     * trigger yang menolak insert setelah blok ID habis (ID tidak masuk ke blok shard berikutnya)
+     */
+    private DatabaseHelper openShard(int slot) {
+        Path file = dir.resolve(shardName(slot));
+        DatabaseHelper shard = DatabaseHelper.forShard(baseConfig.withPath(file.toString()), background);
+        long firstId = (long) slot * idBlock;
+        long lastId = firstId + idBlock;
+        Connection conn = shard.getConnection();
+        try (PreparedStatement raise = conn.prepareStatement(
+                     "UPDATE sqlite_sequence SET seq = ? WHERE name = 'agenda' AND seq < ?");
+             PreparedStatement seed = conn.prepareStatement("INSERT INTO sqlite_sequence (name, seq) "
+                     + "SELECT 'agenda', ? WHERE NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = 'agenda')");
+             Statement ddl = conn.createStatement()) {
+            raise.setLong(1, firstId);
+            raise.setLong(2, firstId);
+            raise.executeUpdate();
+            seed.setLong(1, firstId);
+            seed.executeUpdate();
+            // Yang dicek seq terakhir, bukan NEW.id: agenda yang pindah shard membawa ID
+            // dari blok lain (seq dikembalikan oleh insertAgendaWithId)
+            ddl.execute("DROP TRIGGER IF EXISTS agenda_id_block");
+            ddl.execute("CREATE TRIGGER agenda_id_block BEFORE INSERT ON agenda"
+                    + " WHEN (SELECT seq FROM sqlite_sequence WHERE name = 'agenda') >= " + lastId
+                    + " BEGIN SELECT RAISE(ABORT, 'ID block of this shard is exhausted'); END");
+        } catch (SQLException e) {
+            shard.closeConnection();
+            throw new IllegalStateException("Failed to initialize shard " + file, e);
+        }
+        shard.addChangeListener(forwarder);
+        LOG.debug(() -> "Opened shard " + file + " (ids from " + (firstId + 1) + ")");
+        return shard;
+    }
+
+    // ========== MOVE & DIRECTORY ==========
+
+    /**
+     * Pindahkan agenda ke shard lain dengan ID yang sama; event insert/delete dari
+     * kedua shard ditahan dan diganti satu agendaUpdated
+     */
+    private boolean move(Agenda agenda, DatabaseHelper source, DatabaseHelper target) {
+        int id = agenda.getId();
+        int sourceSlot = slotOfId(id);
+        int targetSlot = slotOf(agenda.getTanggalWaktu());
+        synchronized (moveLock) {
+            if (source.getAgendaById(id) == null) {
+                return false;
+            }
+            moving.add(id);
+            try {
+                if (!target.insertAgendaWithId(agenda)) {
+                    return false;
+                }
+                try {
+                    recordMove(id, targetSlot);
+                } catch (SQLException e) {
+                    LOG.error("Failed to record move of agenda " + id + ", move rolled back", e);
+                    target.deleteAgenda(id);
+                    return false;
+                }
+                if (!source.deleteAgenda(id)) {
+                    LOG.error("Failed to remove agenda " + id + " from its old shard, move rolled back");
+                    target.deleteAgenda(id);
+                    try {
+                        recordMove(id, sourceSlot);
+                    } catch (SQLException e) {
+                        LOG.error("Failed to restore directory entry of agenda " + id, e);
+                    }
+                    return false;
+                }
+            } finally {
+                moving.remove(id);
+            }
+        }
+        forwarder.agendaUpdated(agenda);
+        LOG.debug(() -> "Agenda " + id + " moved to shard " + shardName(targetSlot));
+        return true;
+    }
+
+    /**
+     * Buka direktori perpindahan (dibuat jika belum ada) dan muat semua entri ke memori
+     */
+    private void openDirectory() {
+        Path file = dir.resolve(baseName + "-directory.db");
+        try {
+            directory = DriverManager.getConnection("jdbc:sqlite:" + file);
+            try (Statement stmt = directory.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS moved_agenda ("
+                        + "id INTEGER PRIMARY KEY, slot INTEGER NOT NULL)");
+                try (ResultSet rs = stmt.executeQuery("SELECT id, slot FROM moved_agenda")) {
+                    while (rs.next()) {
+                        movedIds.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Tanpa direktori, perpindahan antar shard gagal (recordMove) dan dibatalkan
+            LOG.error("Failed to open shard directory " + file, e);
+        }
+    }
+
+    /**
+     * Catat shard agenda; entri dihapus jika agenda kembali ke shard blok ID-nya
+     */
+    private void recordMove(int id, int slot) throws SQLException {
+        synchronized (directoryLock) {
+            if (directory == null) {
+                throw new SQLException("Shard directory is not available");
+            }
+            boolean home = slot == homeSlotOf(id);
+            try (PreparedStatement pstmt = directory.prepareStatement(home
+                    ? "DELETE FROM moved_agenda WHERE id = ?"
+                    : "INSERT OR REPLACE INTO moved_agenda (id, slot) VALUES (?, ?)")) {
+                pstmt.setInt(1, id);
+                if (!home) {
+                    pstmt.setInt(2, slot);
+                }
+                pstmt.executeUpdate();
+            }
+            if (home) {
+                movedIds.remove(id);
+            } else {
+                movedIds.put(id, slot);
+            }
+        }
+    }
+
+    /**
+     * Hapus entri direktori setelah agenda yang pernah dipindah dihapus
+     */
+    private void forgetMove(int id) {
+        if (!movedIds.containsKey(id)) {
+            return;
+        }
+        try {
+            recordMove(id, homeSlotOf(id));
+        } catch (SQLException e) {
+            LOG.warn("Failed to remove directory entry of agenda " + id + ": " + e.getMessage());
+        }
+    }
+
+    private void clearDirectory() {
+        synchronized (directoryLock) {
+            if (directory == null) {
+                return;
+            }
+            try (Statement stmt = directory.createStatement()) {
+                stmt.execute("DELETE FROM moved_agenda");
+                movedIds.clear();
+            } catch (SQLException e) {
+                LOG.warn("Failed to clear shard directory: " + e.getMessage());
+            }
+        }
+    }
+
+    // ========== FAN-OUT & MERGE ==========
+
+    /**
+     * Jalankan query di setiap shard secara paralel; hasil sesuai urutan targets
+     * Shard yang belum dibuka dibuka di virtual thread masing-masing.
+     * Satu shard dijalankan langsung di thread pemanggil
+     */
+    private <T> List<T> fanOut(Collection<Integer> targets, Function<DatabaseHelper, T> query) {
+        List<T> results = new ArrayList<>(targets.size());
+        if (targets.size() <= 1) {
+            for (int slot : targets) {
+                results.add(query.apply(existingShard(slot)));
+            }
+            return results;
+        }
+        metrics.increment("shard.fanOut");
+        List<CompletableFuture<T>> futures = new ArrayList<>(targets.size());
+        for (int slot : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(existingShard(slot)), executor));
+        }
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private static List<Agenda> concat(List<List<Agenda>> parts) {
+        int size = 0;
+        for (List<Agenda> part : parts) {
+            size += part.size();
+        }
+        List<Agenda> agendaList = new ArrayList<>(size);
+        for (List<Agenda> part : parts) {
+            agendaList.addAll(part);
+        }
+        return agendaList;
+    }
+
+    /**
+     * Merge k-way dari list yang masing-masing sudah terurut dengan order
+     */
+    private static List<Agenda> merge(List<List<Agenda>> parts, Comparator<Agenda> order) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(
+                Math.max(1, parts.size()), (a, b) -> order.compare(a.current(), b.current()));
+        int size = 0;
+        for (List<Agenda> part : parts) {
+            size += part.size();
+            if (!part.isEmpty()) {
+                heads.add(new Cursor(part));
+            }
+        }
+        List<Agenda> agendaList = new ArrayList<>(size);
+        while (!heads.isEmpty()) {
+            Cursor head = heads.poll();
+            agendaList.add(head.current());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return agendaList;
+    }
+
+    /**
+     * Bangun index fuzzy gabungan jika belum ada atau basi (setelah reload shard)
+     * Event shard menunggu selama rebuild, sehingga tidak ada perubahan yang hilang
+     */
+    private void ensureFuzzyIndex() {
+        if (!fuzzyIndex.isConfigured()) {
+            return;
+        }
+        synchronized (fuzzyLock) {
+            if (fuzzyStale) {
+                fuzzyIndex.rebuild(getAllAgenda());
+                fuzzyStale = false;
+            }
+        }
+    }
+
+    private static Agenda copyOf(Agenda agenda) {
+        return new Agenda(agenda.getId(), agenda.getJudul(), agenda.getDeskripsi(),
+                agenda.getTanggalWaktu(), agenda.getPrioritas());
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Posisi baca di satu list hasil shard (untuk merge k-way)
+     */
+    private static final class Cursor {
+        private final List<Agenda> list;
+        private int index;
+
+        Cursor(List<Agenda> list) {
+            this.list = list;
+        }
+
+        Agenda current() {
+            return list.get(index);
+        }
+
+        boolean advance() {
+            return ++index < list.size();
+        }
+    }
+
+    /**
+     * Teruskan event dari setiap shard ke listener repository dan index fuzzy gabungan
+     * (dipanggil di thread writer shard masing-masing)
+     */
+    private final class ShardEventForwarder implements AgendaChangeListener {
+
+        @Override
+        public void agendaInserted(Agenda agenda) {
+            if (moving.contains(agenda.getId())) {
+                return; // Bagian dari perpindahan shard, dikirim sebagai agendaUpdated
+            }
+            synchronized (fuzzyLock) {
+                if (!fuzzyStale) {
+                    fuzzyIndex.add(copyOf(agenda));
+                }
+            }
+            for (AgendaChangeListener listener : changeListeners) {
+                listener.agendaInserted(copyOf(agenda));
+            }
+        }
+
+        @Override
+        public void agendaUpdated(Agenda agenda) {
+            synchronized (fuzzyLock) {
+                if (!fuzzyStale) {
+                    fuzzyIndex.update(copyOf(agenda));
+                }
+            }
+            for (AgendaChangeListener listener : changeListeners) {
+                listener.agendaUpdated(copyOf(agenda));
+            }
+        }
+
+        @Override
+        public void agendaDeleted(int id) {
+            if (moving.contains(id)) {
+                return;
+            }
+            synchronized (fuzzyLock) {
+                if (!fuzzyStale) {
+                    fuzzyIndex.remove(id);
+                }
+            }
+            for (AgendaChangeListener listener : changeListeners) {
+                listener.agendaDeleted(id);
+            }
+        }
+
+        @Override
+        public void agendaReloaded() {
+            synchronized (fuzzyLock) {
+                fuzzyStale = true; // Dibangun ulang pada pencarian fuzzy berikutnya
+                fuzzyIndex.clear();
+            }
+            for (AgendaChangeListener listener : changeListeners) {
+                listener.agendaReloaded();
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import util.Log;
+import util.RotatingFileWriter;
+
+/**
+ *
+ * Log untuk query yang melebihi threshold
+ * Setiap bentuk statement (SQL dengan placeholder) dicatat lengkap sekali:
+ * SQL, parameter yang sudah disamarkan, durasi, dan output EXPLAIN QUERY PLAN.
+ * Kemunculan berikutnya hanya dihitung dan diringkas pada 2, 4, 8, ... kali
+ * Penulisan file dilakukan di background thread
+ * Satu instance dipakai bersama oleh semua DatabaseHelper di proses (acquire/release),
+ * sehingga hanya ada satu thread dan satu writer untuk file log yang sama
+ *
+ * Konfigurasi (system properties):
+ * agenda.slowQuery.thresholdMs (default 100, 0 = nonaktif),
+ * agenda.slowQuery.file (default slow-queries.log),
+ * agenda.slowQuery.maxBytes (default 1 MB), agenda.slowQuery.files (default 3)
+ *
+ * @author slozoy
+ */
+public class SlowQueryLog {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(SlowQueryLog.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    // ========== SHARED INSTANCE ==========
+    private static SlowQueryLog shared;
+    private static int references;
+
+    // ========== ATTRIBUTES ==========
+    private final long thresholdNanos;
+    private final RotatingFileWriter writer;
+    private final Map<String, AtomicLong> occurrences = new ConcurrentHashMap<>();
+    private final ExecutorService writerThread = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "slow-query-log");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    /**
+     * Constructor, konfigurasi dari system properties
+     */
+    public SlowQueryLog() {
+        this(Long.getLong("agenda.slowQuery.thresholdMs", 100),
+             new RotatingFileWriter(System.getProperty("agenda.slowQuery.file", "slow-queries.log"),
+                     Long.getLong("agenda.slowQuery.maxBytes", 1024 * 1024),
+                     Integer.getInteger("agenda.slowQuery.files", 3)));
+    }
+
+    /**
+     * Constructor
+     * @param thresholdMillis Batas durasi query lambat (0 = nonaktif)
+     * @param writer Tujuan log
+     */
+    public SlowQueryLog(long thresholdMillis, RotatingFileWriter writer) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.writer = writer;
+    }
+
+    /**
+     * Ambil instance bersama (dibuat saat pertama kali dipakai)
+     * Setiap acquire harus diimbangi satu release
+     * @return SlowQueryLog bersama
+     */
+    public static synchronized SlowQueryLog acquire() {
+        if (shared == null) {
+            shared = new SlowQueryLog();
+        }
+        references++;
+        return shared;
+    }
+
+    /**
+     * Lepas instance bersama; ditutup setelah pemakai terakhir melepasnya
+     */
+    public void release() {
+        synchronized (SlowQueryLog.class) {
+            if (this != shared) {
+                close();
+                return;
+            }
+            if (--references > 0) {
+                return;
+            }
+            shared = null;
+        }
+        close();
+    }
+
+    /**
+     * Tulis entri yang masih antre lalu tutup file log
+     */
+    public void close() {
+        closed = true;
+        writerThread.shutdown();
+        try {
+            if (!writerThread.awaitTermination(2, TimeUnit.SECONDS)) {
+                writerThread.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writerThread.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close slow query log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return true jika slow query log aktif
+     */
+    public boolean isEnabled() {
+        return thresholdNanos > 0 && !closed;
+    }
+
+    // ========== CHECK ==========
+
+    /**
+     * Catat query jika durasinya melebihi threshold
+     * EXPLAIN QUERY PLAN dijalankan di thread pemanggil (connection yang sama),
+     * hanya untuk kemunculan pertama setiap bentuk statement
+     * @param connection Connection yang menjalankan query
+     * @param sql SQL dengan placeholder
+     * @param elapsedNanos Durasi query
+     * @param params Parameter yang di-bind (akan disamarkan)
+     */
+    public void check(Connection connection, String sql, long elapsedNanos, Object... params) {
+        if (!isEnabled() || elapsedNanos < thresholdNanos) {
+            return;
+        }
+
+        String shape = shapeOf(sql);
+        long count = occurrences.computeIfAbsent(shape, k -> new AtomicLong()).incrementAndGet();
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        long millis = elapsedNanos / 1_000_000;
+
+        String entry;
+        if (count == 1) {
+            entry = timestamp + " SLOW QUERY " + millis + " ms" + System.lineSeparator()
+                    + "  sql:    " + shape + System.lineSeparator()
+                    + "  params: " + redact(params) + System.lineSeparator()
+                    + "  plan:" + System.lineSeparator()
+                    + explain(connection, sql, params);
+        } else if (Long.bitCount(count) == 1) {
+            entry = timestamp + " SLOW QUERY repeated " + count + "x (last " + millis + " ms): "
+                    + shape + System.lineSeparator();
+        } else {
+            return;
+        }
+        try {
+            writerThread.execute(() -> append(entry));
+        } catch (RejectedExecutionException e) {
+            // Log sedang ditutup (closeConnection), entri dibuang
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    /**
+     * Bentuk statement: SQL dengan whitespace dinormalisasi (nilai sudah berupa placeholder)
+     */
+    private static String shapeOf(String sql) {
+        return sql.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Samarkan parameter: hanya tipe dan panjang yang dicatat, bukan isinya
+     */
+    private static String redact(Object[] params) {
+        if (params == null || params.length == 0) {
+            return "(none)";
+        }
+        StringBuilder redacted = new StringBuilder();
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                redacted.append(", ");
+            }
+            Object param = params[i];
+            redacted.append('?').append(i + 1).append('=');
+            if (param == null) {
+                redacted.append("NULL");
+            } else if (param instanceof String) {
+                redacted.append("<text len=").append(((String) param).length()).append('>');
+            } else {
+                redacted.append('<').append(param.getClass().getSimpleName()).append('>');
+            }
+        }
+        return redacted.toString();
+    }
+
+    /**
+     * Jalankan EXPLAIN QUERY PLAN dan format sebagai tree
+     */
+    private static String explain(Connection connection, String sql, Object[] params) {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement pstmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 0; params != null && i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            Map<Integer, Integer> depthById = new HashMap<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int depth = depthById.getOrDefault(rs.getInt("parent"), -1) + 1;
+                    depthById.put(rs.getInt("id"), depth);
+                    plan.append("    ").append("  ".repeat(depth))
+                        .append(rs.getString("detail")).append(System.lineSeparator());
+                }
+            }
+        } catch (SQLException e) {
+            plan.append("    (EXPLAIN failed: ").append(e.getMessage()).append(')')
+                .append(System.lineSeparator());
+        }
+        return plan.toString();
+    }
+
+    private void append(String entry) {
+        try {
+            writer.write(entry);
+            writer.flush();
+        } catch (IOException e) {
+            LOG.warn("Failed to write slow query log: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Cache PreparedStatement per connection, dengan key SQL dan batas ukuran (LRU)
+ * Statement dipinjam lewat Lease (try-with-resources): selama dipinjam statement
+ * dikeluarkan dari cache sehingga tidak pernah dipakai dua thread sekaligus, lalu
+ * dikembalikan saat Lease ditutup. Statement yang tergeser LRU, atau duplikat
+ * dari peminjaman bersamaan, langsung ditutup
+ * Hit dan miss dicatat di QueryMetrics (statementCache.hit / statementCache.miss)
+ *
+ * Konfigurasi (system property): agenda.statementCache.size (default 32, 0 = nonaktif)
+ *
+ * @author slozoy
+ */
+public class StatementCache {
+
+    // ========== CONSTANTS ==========
+    public static final String HIT_COUNTER = "statementCache.hit";
+    public static final String MISS_COUNTER = "statementCache.miss";
+
+    // ========== ATTRIBUTES ==========
+    private final Connection connection;
+    private final QueryMetrics metrics;
+    private final int capacity;
+    private final Map<String, PreparedStatement> idle;
+    private boolean closed;
+
+    /**
+     * Constructor, ukuran dari system property agenda.statementCache.size
+     * @param connection Connection pemilik statement
+     * @param metrics Tujuan counter hit/miss
+     */
+    public StatementCache(Connection connection, QueryMetrics metrics) {
+        this(connection, metrics, Integer.getInteger("agenda.statementCache.size", 32));
+    }
+
+    /**
+     * Constructor
+     * @param connection Connection pemilik statement
+     * @param metrics Tujuan counter hit/miss
+     * @param capacity Jumlah maksimum statement idle di cache
+     */
+    public StatementCache(Connection connection, QueryMetrics metrics, int capacity) {
+        this.connection = connection;
+        this.metrics = metrics;
+        this.capacity = Math.max(0, capacity);
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ========== LEASE ==========
+
+    /**
+     * Pinjam statement untuk SQL (dari cache, atau prepare baru)
+     * @param sql SQL dengan placeholder
+     * @return Lease yang wajib ditutup
+     * @throws SQLException jika prepare gagal
+     */
+    public Lease prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Pinjam statement untuk SQL (dari cache, atau prepare baru)
+     * @param sql SQL dengan placeholder
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS atau NO_GENERATED_KEYS
+     * @return Lease yang wajib ditutup
+     * @throws SQLException jika prepare gagal
+     */
+    public Lease prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "#keys " + sql : sql;
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = idle.remove(key);
+        }
+        if (statement != null) {
+            metrics.increment(HIT_COUNTER);
+        } else {
+            metrics.increment(MISS_COUNTER);
+            statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return new Lease(key, statement);
+    }
+
+    /**
+     * Tutup semua statement idle; statement yang sedang dipinjam ditutup saat dikembalikan
+     * Dipanggil sebelum connection ditutup atau diganti
+     */
+    public void close() {
+        List<PreparedStatement> statements;
+        synchronized (this) {
+            closed = true;
+            statements = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        for (PreparedStatement statement : statements) {
+            closeQuietly(statement);
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private void release(String key, PreparedStatement statement) {
+        try {
+            // Sama seperti statement.close(): ResultSet yang masih terbuka ditutup,
+            // agar statement di-reset dan tidak menahan snapshot baca WAL
+            ResultSet open = statement.getResultSet();
+            if (open != null) {
+                open.close();
+            }
+            statement.clearParameters();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        synchronized (this) {
+            if (!closed && capacity > 0 && !idle.containsKey(key)) {
+                idle.put(key, statement);
+                return;
+            }
+        }
+        closeQuietly(statement);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Statement sudah tidak terpakai, tidak ada yang perlu dipulihkan
+        }
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Statement yang sedang dipinjam; close() menutup ResultSet yang masih terbuka
+     * dan mengembalikan statement ke cache
+     */
+    public final class Lease implements AutoCloseable {
+        private final String key;
+        private final PreparedStatement statement;
+
+        private Lease(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        /**
+         * @return PreparedStatement yang dipinjam
+         */
+        public PreparedStatement statement() {
+            return statement;
+        }
+
+        @Override
+        public void close() {
+            release(key, statement);
+        }
+    }
+}
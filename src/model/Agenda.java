@@ -138,6 +138,29 @@ public class Agenda {
         return namaHari[tanggalWaktu.getDayOfWeek().getValue() % 7];
     }
     
+    /**
+     * Method untuk mendapatkan urutan prioritas (untuk sorting)
+     * Rendah = 1, Sedang = 2, Tinggi = 3, Urgent = 4, lainnya = 0
+     * @return int peringkat prioritas
+     */
+    public int getPrioritasRank() {
+        if (prioritas == null) {
+            return 0;
+        }
+        switch (prioritas) {
+            case "Rendah":
+                return 1;
+            case "Sedang":
+                return 2;
+            case "Tinggi":
+                return 3;
+            case "Urgent":
+                return 4;
+            default:
+                return 0;
+        }
+    }
+    
     /**
      * Override toString untuk debugging
      * @return String representasi objek
@@ -0,0 +1,246 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appender log asynchronous dengan ring buffer berukuran tetap
+ * Thread pemanggil (termasuk EDT) hanya menyalin event ke buffer;
+ * thread "log-writer" mengosongkan buffer per batch, memformat, lalu menulis ke
+ * file berotasi (dan console jika diaktifkan) dengan satu flush per batch
+ * Jika buffer penuh, event baru dibuang dan dihitung agar pemanggil tidak pernah menunggu I/O
+ *
+ * Konfigurasi (system properties):
+ * agenda.log.file (default agenda.log), agenda.log.maxBytes (default 5 MB),
+ * agenda.log.files (default 5), agenda.log.bufferSize (default 8192),
+ * agenda.log.console (default true)
+ * @author slozoy
+ */
+public class AsyncLogAppender {
+
+    // ========== CONSTANTS ==========
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    // ========== SINGLETON PATTERN ==========
+    private static AsyncLogAppender instance;
+
+    // ========== ATTRIBUTES ==========
+    private final Entry[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final RotatingFileWriter fileWriter;
+    private final boolean console;
+    private int head;
+    private int size;
+    private long dropped;
+    private boolean writing;
+
+    private AsyncLogAppender(int capacity, RotatingFileWriter fileWriter, boolean console) {
+        this.ring = new Entry[Math.max(16, capacity)];
+        this.fileWriter = fileWriter;
+        this.console = console;
+    }
+
+    /**
+     * Instance appender (dibuat dan dijalankan saat pertama dipakai)
+     * @return AsyncLogAppender
+     */
+    public static synchronized AsyncLogAppender getInstance() {
+        if (instance == null) {
+            instance = new AsyncLogAppender(
+                    Integer.getInteger("agenda.log.bufferSize", 8192),
+                    new RotatingFileWriter(System.getProperty("agenda.log.file", "agenda.log"),
+                            Long.getLong("agenda.log.maxBytes", 5L * 1024 * 1024),
+                            Integer.getInteger("agenda.log.files", 5)),
+                    Boolean.parseBoolean(System.getProperty("agenda.log.console", "true")));
+            instance.start();
+        }
+        return instance;
+    }
+
+    // ========== PRODUCER ==========
+
+    /**
+     * Masukkan event ke ring buffer (tidak pernah memblokir untuk I/O)
+     */
+    void append(Log.Level level, String logger, String message, Throwable error) {
+        Entry entry = new Entry(System.currentTimeMillis(), level, Thread.currentThread().getName(),
+                logger, message, error);
+        lock.lock();
+        try {
+            if (size == ring.length) {
+                dropped++;
+                return;
+            }
+            ring[(head + size) % ring.length] = entry;
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tunggu sampai semua event di buffer sudah ditulis
+     * @param timeoutMillis Batas waktu tunggu
+     */
+    public void flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (size > 0 || writing) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                drained.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ========== CONSUMER ==========
+
+    private void start() {
+        Thread thread = new Thread(this::run, "log-writer");
+        thread.setDaemon(true);
+        thread.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            flush(2000);
+            try {
+                fileWriter.close();
+            } catch (IOException e) {
+                // Shutdown, tidak ada tempat lain untuk melaporkan
+            }
+        }, "log-writer-shutdown"));
+    }
+
+    private void run() {
+        Entry[] batch = new Entry[ring.length];
+        while (true) {
+            int count;
+            long droppedNow;
+            lock.lock();
+            try {
+                while (size == 0) {
+                    drained.signalAll();
+                    notEmpty.await();
+                }
+                count = size;
+                for (int i = 0; i < count; i++) {
+                    int slot = (head + i) % ring.length;
+                    batch[i] = ring[slot];
+                    ring[slot] = null;
+                }
+                head = (head + count) % ring.length;
+                size = 0;
+                droppedNow = dropped;
+                dropped = 0;
+                writing = true;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            write(batch, count, droppedNow);
+
+            lock.lock();
+            try {
+                writing = false;
+                if (size == 0) {
+                    drained.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(Entry[] batch, int count, long droppedCount) {
+        StringBuilder text = new StringBuilder();
+        StringBuilder consoleOut = new StringBuilder();
+        StringBuilder consoleErr = new StringBuilder();
+        if (droppedCount > 0) {
+            text.append(TIMESTAMP_FORMAT.format(Instant.now())).append(" WARN  [log-writer] ")
+                .append(AsyncLogAppender.class.getName()).append(" - ")
+                .append(droppedCount).append(" log event(s) dropped, buffer full")
+                .append(System.lineSeparator());
+            consoleErr.append(text);
+        }
+        for (int i = 0; i < count; i++) {
+            int start = text.length();
+            format(batch[i], text);
+            if (console) {
+                // INFO/DEBUG ke stdout, WARN/ERROR ke stderr
+                (batch[i].level.compareTo(Log.Level.WARN) >= 0 ? consoleErr : consoleOut)
+                        .append(text, start, text.length());
+            }
+            batch[i] = null;
+        }
+
+        try {
+            fileWriter.write(text.toString());
+            fileWriter.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to write log file: " + e.getMessage());
+        }
+        if (console) {
+            System.out.print(consoleOut);
+            System.err.print(consoleErr);
+        }
+    }
+
+    private static void format(Entry entry, StringBuilder text) {
+        text.append(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(entry.timestamp))).append(' ')
+            .append(String.format("%-5s", entry.level)).append(" [").append(entry.thread).append("] ")
+            .append(entry.logger).append(" - ").append(entry.message)
+            .append(System.lineSeparator());
+        if (entry.error != null) {
+            StringWriter trace = new StringWriter();
+            entry.error.printStackTrace(new PrintWriter(trace));
+            text.append(trace);
+        }
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Satu event log di ring buffer
+     */
+    private static final class Entry {
+        final long timestamp;
+        final Log.Level level;
+        final String thread;
+        final String logger;
+        final String message;
+        final Throwable error;
+
+        Entry(long timestamp, Log.Level level, String thread, String logger,
+              String message, Throwable error) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.thread = thread;
+            this.logger = logger;
+            this.message = message;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util;
+
+import java.awt.EventQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Watchdog untuk mendeteksi Event Dispatch Thread (EDT) yang macet
+ * Thread daemon mengirim heartbeat ke EDT secara berkala; jika heartbeat
+ * tidak diproses melewati threshold, stack trace EDT dicatat ke log
+ * Latensi setiap heartbeat dicatat ke histogram
+ *
+ * Konfigurasi (system properties):
+ * agenda.edt.watchdog (default true), agenda.edt.thresholdMs (default 500),
+ * agenda.edt.intervalMs (default 100)
+ * @author slozoy
+ */
+public class EdtWatchdog {
+
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(EdtWatchdog.class);
+    private static final long[] BUCKET_LIMITS_MS = {16, 50, 100, 250, 500, 1000, 2000, 5000};
+
+    // ========== SINGLETON PATTERN ==========
+    private static EdtWatchdog instance;
+
+    // ========== ATTRIBUTES ==========
+    private final long thresholdNanos;
+    private final long intervalMillis;
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_LIMITS_MS.length + 1);
+    private volatile Thread edtThread;
+    private volatile long postedAt;
+    private volatile boolean pending;
+    private volatile boolean stallReported;
+    private volatile long stallCount;
+    private volatile long maxLatencyNanos;
+
+    /**
+     * Constructor private, gunakan start()
+     */
+    private EdtWatchdog(long thresholdMillis, long intervalMillis) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Jalankan watchdog jika diaktifkan lewat konfigurasi
+     * @return instance watchdog, atau null jika dinonaktifkan
+     */
+    public static synchronized EdtWatchdog startIfEnabled() {
+        if (!Boolean.parseBoolean(System.getProperty("agenda.edt.watchdog", "true"))) {
+            return null;
+        }
+        if (instance == null) {
+            instance = new EdtWatchdog(
+                    Long.getLong("agenda.edt.thresholdMs", 500),
+                    Long.getLong("agenda.edt.intervalMs", 100));
+            instance.start();
+        }
+        return instance;
+    }
+
+    // ========== WATCHDOG LOOP ==========
+
+    private void start() {
+        // EDT dicatat sebelum heartbeat pertama, agar EDT yang sudah macet sejak awal
+        // tetap dilaporkan dengan stack trace
+        edtThread = EventQueue.isDispatchThread() ? Thread.currentThread() : findDispatchThread();
+
+        Thread thread = new Thread(this::run, "edt-watchdog");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> {
+                    LOG.info("EDT latency histogram: " + getHistogramSummary());
+                    AsyncLogAppender.getInstance().flush(500);
+                },
+                "edt-watchdog-summary"));
+        LOG.info("EDT watchdog started (threshold "
+                + thresholdNanos / 1_000_000 + " ms)");
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (!pending) {
+                postHeartbeat();
+            } else if (!stallReported && System.nanoTime() - postedAt > thresholdNanos) {
+                stallReported = true;
+                reportStall();
+            }
+        }
+    }
+
+    private void postHeartbeat() {
+        pending = true;
+        stallReported = false;
+        postedAt = System.nanoTime();
+        EventQueue.invokeLater(this::heartbeat);
+    }
+
+    /**
+     * Dijalankan di EDT: catat latensi dari heartbeat dikirim sampai diproses
+     */
+    private void heartbeat() {
+        edtThread = Thread.currentThread();
+        long latency = System.nanoTime() - postedAt;
+        histogram.incrementAndGet(bucketOf(latency));
+        if (latency > maxLatencyNanos) {
+            maxLatencyNanos = latency;
+        }
+        if (stallReported) {
+            LOG.warn("EDT stall ended after " + latency / 1_000_000 + " ms | "
+                    + getHistogramSummary());
+        }
+        pending = false;
+    }
+
+    /**
+     * Ambil stack trace EDT saat macet dan tulis ke log
+     */
+    private void reportStall() {
+        stallCount++;
+        Thread edt = edtThread;
+        if (edt == null || !edt.isAlive()) {
+            edt = findDispatchThread(); // Belum ada heartbeat yang diproses, atau EDT diganti
+            edtThread = edt;
+        }
+        StringBuilder report = new StringBuilder();
+        report.append("EDT stall detected (> ").append(thresholdNanos / 1_000_000)
+              .append(" ms, stall #").append(stallCount).append(")");
+        if (edt != null) {
+            for (StackTraceElement element : edt.getStackTrace()) {
+                report.append(System.lineSeparator()).append("    at ").append(element);
+            }
+        }
+        LOG.warn(report.toString());
+    }
+
+    /**
+     * Cari EDT berdasarkan nama thread (AWT-EventQueue-N)
+     * @return Thread EDT, atau null jika EDT belum dibuat
+     */
+    private static Thread findDispatchThread() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("AWT-EventQueue-") && thread.isAlive()) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    // ========== STATISTICS ==========
+
+    /**
+     * Ringkasan histogram latensi EDT
+     * @return String berisi jumlah per bucket, jumlah stall, dan latensi maksimum
+     */
+    public String getHistogramSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < histogram.length(); i++) {
+            if (i > 0) {
+                summary.append(", ");
+            }
+            summary.append(i < BUCKET_LIMITS_MS.length
+                    ? "<" + BUCKET_LIMITS_MS[i] + "ms"
+                    : ">=" + BUCKET_LIMITS_MS[BUCKET_LIMITS_MS.length - 1] + "ms");
+            summary.append('=').append(histogram.get(i));
+        }
+        summary.append(" | stalls=").append(stallCount)
+               .append(", max=").append(maxLatencyNanos / 1_000_000).append("ms");
+        return summary.toString();
+    }
+
+    private static int bucketOf(long latencyNanos) {
+        long millis = latencyNanos / 1_000_000;
+        for (int i = 0; i < BUCKET_LIMITS_MS.length; i++) {
+            if (millis < BUCKET_LIMITS_MS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS_MS.length;
+    }
+}
@@ -7,13 +7,20 @@ package util;
 import model.Agenda;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileNameExtensionFilter;
+import util.jfr.FileTransferEvent;
 
 /**
  * Class untuk menangani export dan import data
@@ -23,10 +30,11 @@ import javax.swing.filechooser.FileNameExtensionFilter;
  */
 public class FileHandler {
     
-    private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-            .create();
+    private static final Log LOG = Log.get(FileHandler.class);
+    
+    private static final Gson gson = createGson(true);
+    private static final Gson compactGson = createGson(false);
+    private static final Type AGENDA_LIST_TYPE = new TypeToken<List<Agenda>>(){}.getType();
     
     // ========== EXPORT METHOD ==========
     
@@ -53,30 +61,60 @@ public class FileHandler {
                 fileToSave = new File(fileToSave.getAbsolutePath() + ".json");
             }
             
-            try (Writer writer = new FileWriter(fileToSave)) {
-                // Create export data wrapper (optional - for metadata)
-                ExportData exportData = new ExportData();
-                exportData.setExportDate(LocalDateTime.now().format(
-                        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-                exportData.setTotalAgenda(agendaList.size());
-                exportData.setAgendaList(agendaList);
-                
+            FileTransferEvent event = new FileTransferEvent();
+            event.begin();
+            CountingOutputStream counter = null;
+            
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    counter = new CountingOutputStream(new FileOutputStream(fileToSave)),
+                    StandardCharsets.UTF_8))) {
                 // Export dengan metadata
-                gson.toJson(exportData, writer);
+                writeJSON(agendaList, writer, true, true);
+                event.success = true;
                 
-                System.out.println("Export to JSON successful: " + fileToSave.getAbsolutePath());
+                LOG.info("Export to JSON successful: " + fileToSave.getAbsolutePath());
                 return true;
                 
-            } catch (IOException e) {
-                System.err.println("Failed to export to JSON!");
-                e.printStackTrace();
+            } catch (IOException | JsonParseException e) {
+                LOG.error("Failed to export to JSON!", e);
                 return false;
+            } finally {
+                commitTransferEvent(event, "export", fileToSave, counter, agendaList.size());
             }
         }
         
         return false;
     }
     
+    /**
+     * Tulis agenda sebagai JSON ke writer (tanpa dialog, bisa dipakai headless)
+     * @param agendaList List agenda
+     * @param writer Tujuan output (tidak ditutup)
+     * @param pretty true untuk output berindentasi, false untuk compact
+     * @param withMetadata true untuk format ExportData (exportDate, totalAgenda, appVersion),
+     *                     false untuk array agenda saja
+     * @throws IOException jika gagal menulis
+     */
+    public static void writeJSON(List<Agenda> agendaList, Writer writer,
+                                 boolean pretty, boolean withMetadata) throws IOException {
+        Gson output = pretty ? gson : compactGson;
+        try {
+            if (withMetadata) {
+                ExportData exportData = new ExportData();
+                exportData.setExportDate(LocalDateTime.now().format(
+                        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+                exportData.setTotalAgenda(agendaList.size());
+                exportData.setAgendaList(agendaList);
+                output.toJson(exportData, ExportData.class, writer);
+            } else {
+                output.toJson(agendaList, AGENDA_LIST_TYPE, writer);
+            }
+        } catch (JsonIOException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+        }
+        writer.flush();
+    }
+    
     // ========== IMPORT METHOD ==========
     
     /**
@@ -93,44 +131,179 @@ public class FileHandler {
         
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToOpen = fileChooser.getSelectedFile();
+            FileTransferEvent event = new FileTransferEvent();
+            event.begin();
+            CountingInputStream counter = null;
+            List<Agenda> imported = null;
             
-            try (Reader reader = new FileReader(fileToOpen)) {
-                // Try to parse as ExportData (with metadata)
-                try {
-                    ExportData exportData = gson.fromJson(reader, ExportData.class);
-                    
-                    if (exportData != null && exportData.getAgendaList() != null) {
-                        System.out.println("Import from JSON successful!");
-                        System.out.println("  Export Date: " + exportData.getExportDate());
-                        System.out.println("  Total Agenda: " + exportData.getTotalAgenda());
-                        return exportData.getAgendaList();
-                    }
-                } catch (Exception e) {
-                    // Fallback: Try to parse as plain List<Agenda>
-                    System.out.println("Trying to parse as plain list...");
+            try (Reader reader = new BufferedReader(new InputStreamReader(
+                    counter = new CountingInputStream(new FileInputStream(fileToOpen)),
+                    StandardCharsets.UTF_8))) {
+                imported = readJSON(reader);
+                if (imported != null) {
+                    LOG.info("Import from JSON successful: " + imported.size() + " agenda");
                 }
+                return imported;
                 
-                // Fallback: Parse directly as List<Agenda>
-                try (Reader reader2 = new FileReader(fileToOpen)) {
-                    List<Agenda> agendaList = gson.fromJson(reader2, 
-                            new TypeToken<List<Agenda>>(){}.getType());
-                    
-                    System.out.println("Import from JSON successful (plain format)!");
-                    return agendaList;
-                }
-                
-            } catch (IOException e) {
-                System.err.println("Failed to import from JSON!");
-                e.printStackTrace();
+            } catch (IOException | JsonParseException e) {
+                LOG.error("Failed to import from JSON!", e);
                 return null;
+            } finally {
+                event.success = imported != null;
+                commitTransferEvent(event, "import", fileToOpen, counter,
+                        imported == null ? 0 : imported.size());
             }
         }
         
         return null;
     }
     
+    /**
+     * Baca agenda dari JSON (tanpa dialog, bisa dipakai headless)
+     * Format dikenali dari token pertama dalam satu kali baca:
+     * object = ExportData dengan metadata, array = list agenda saja
+     * @param reader Sumber input (tidak ditutup)
+     * @return List agenda, atau null jika object tidak berisi agendaList
+     * @throws IOException jika gagal membaca atau format tidak dikenali
+     */
+    public static List<Agenda> readJSON(Reader reader) throws IOException {
+        JsonReader jsonReader = gson.newJsonReader(reader);
+        JsonToken first = jsonReader.peek();
+        
+        if (first == JsonToken.BEGIN_OBJECT) {
+            ExportData exportData = gson.fromJson(jsonReader, ExportData.class);
+            if (exportData == null || exportData.getAgendaList() == null) {
+                return null;
+            }
+            LOG.debug(() -> "Parsed export file, Export Date: " + exportData.getExportDate()
+                    + ", Total Agenda: " + exportData.getTotalAgenda());
+            return exportData.getAgendaList();
+        }
+        if (first == JsonToken.BEGIN_ARRAY) {
+            LOG.debug("Parsed plain agenda list");
+            return gson.fromJson(jsonReader, AGENDA_LIST_TYPE);
+        }
+        throw new IOException("Unrecognized JSON format: expected object or array, found " + first);
+    }
+    
+    private static Gson createGson(boolean pretty) {
+        GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter());
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
+    }
+    
+    // ========== PROFILING ==========
+    
+    /**
+     * Commit event JFR import/export (tidak ada biaya jika JFR tidak merekam)
+     */
+    private static void commitTransferEvent(FileTransferEvent event, String operation, File file,
+                                            ByteCounter counter, int records) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.path = file.getAbsolutePath();
+            event.records = records;
+            if (counter != null) {
+                event.bytes = counter.getBytes();
+                event.chunks = counter.getChunks();
+            }
+            event.commit();
+        }
+    }
+    
     // ========== HELPER CLASS ==========
     
+    /**
+     * Penghitung byte dan jumlah operasi I/O ke file
+     */
+    private interface ByteCounter {
+        long getBytes();
+        
+        long getChunks();
+    }
+    
+    /**
+     * OutputStream yang menghitung byte dan jumlah operasi tulis
+     */
+    private static class CountingOutputStream extends FilterOutputStream implements ByteCounter {
+        private long bytes;
+        private long chunks;
+        
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes++;
+            chunks++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+            chunks++;
+        }
+        
+        @Override
+        public long getBytes() {
+            return bytes;
+        }
+        
+        @Override
+        public long getChunks() {
+            return chunks;
+        }
+    }
+    
+    /**
+     * InputStream yang menghitung byte dan jumlah operasi baca
+     */
+    private static class CountingInputStream extends FilterInputStream implements ByteCounter {
+        private long bytes;
+        private long chunks;
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                bytes++;
+            }
+            chunks++;
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                bytes += n;
+            }
+            chunks++;
+            return n;
+        }
+        
+        @Override
+        public long getBytes() {
+            return bytes;
+        }
+        
+        @Override
+        public long getChunks() {
+            return chunks;
+        }
+    }
+    
     /**
      * Wrapper class untuk export data dengan metadata
      */
@@ -0,0 +1,125 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util;
+
+import java.util.function.Supplier;
+
+/**
+ * Logger ringan dengan level dan pesan lazy
+ * Pemanggil hanya memeriksa level dan memasukkan event ke ring buffer;
+ * format timestamp dan I/O file/console dikerjakan AsyncLogAppender di background thread
+ *
+ * Contoh:
+ * private static final Log LOG = Log.get(DatabaseHelper.class);
+ * LOG.debug(() -> "Loaded " + list.size() + " rows");
+ * LOG.error("Failed to insert agenda!", e);
+ *
+ * Konfigurasi: agenda.log.level (DEBUG, INFO, WARN, ERROR; default INFO)
+ * @author slozoy
+ */
+public final class Log {
+
+    /**
+     * Level log, terurut dari paling rinci
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    // ========== CONSTANTS ==========
+    private static final Level THRESHOLD = parseLevel(System.getProperty("agenda.log.level", "INFO"));
+
+    // ========== ATTRIBUTES ==========
+    private final String name;
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Logger untuk class tertentu
+     * @param owner Class pemilik logger
+     * @return Logger dengan nama class tersebut
+     */
+    public static Log get(Class<?> owner) {
+        return new Log(owner.getName());
+    }
+
+    // ========== LEVEL CHECK ==========
+
+    /**
+     * @param level Level yang diperiksa
+     * @return true jika pesan dengan level ini akan ditulis
+     */
+    public boolean isEnabled(Level level) {
+        return level.compareTo(THRESHOLD) >= 0;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    // ========== LOGGING ==========
+
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    /**
+     * Pesan debug yang hanya dibuat jika level DEBUG aktif
+     * @param message Supplier pesan
+     */
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    /**
+     * Pesan info yang hanya dibuat jika level INFO aktif
+     * @param message Supplier pesan
+     */
+    public void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, message.get(), null);
+        }
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void warn(String message, Throwable error) {
+        log(Level.WARN, message, error);
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    private void log(Level level, String message, Throwable error) {
+        if (isEnabled(level)) {
+            AsyncLogAppender.getInstance().append(level, name, message, error);
+        }
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer file teks dengan rotasi berdasarkan ukuran
+ * Jika file melebihi maxBytes: file.log -> file.log.1 -> file.log.2 ... (maksimal maxFiles)
+ * Thread-safe; pemanggil menentukan kapan flush
+ * @author slozoy
+ */
+public class RotatingFileWriter implements AutoCloseable {
+
+    // ========== ATTRIBUTES ==========
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private Writer writer;
+    private long size;
+
+    /**
+     * Constructor
+     * @param fileName Nama/path file log
+     * @param maxBytes Ukuran maksimum sebelum rotasi
+     * @param maxFiles Jumlah file lama yang disimpan
+     */
+    public RotatingFileWriter(String fileName, long maxBytes, int maxFiles) {
+        this.file = Paths.get(fileName).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(0, maxFiles);
+    }
+
+    // ========== WRITE ==========
+
+    /**
+     * Tulis teks ke file, rotasi dulu jika file sudah penuh
+     * @param text Teks yang akan ditulis (termasuk line separator)
+     * @throws IOException jika gagal menulis
+     */
+    public synchronized void write(String text) throws IOException {
+        if (writer == null) {
+            open();
+        }
+        if (size > 0 && size + text.length() > maxBytes) {
+            rotate();
+        }
+        writer.write(text);
+        size += text.length(); // Perkiraan (karakter), cukup untuk batas rotasi
+    }
+
+    /**
+     * Flush buffer ke disk
+     * @throws IOException jika gagal
+     */
+    public synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // ========== ROTATION ==========
+
+    private void open() throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        writer.close();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(archive(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path source = archive(i);
+                if (Files.exists(source)) {
+                    Files.move(source, archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event JFR untuk satu panggilan DAO di DatabaseHelper
+ * Stack trace ikut direkam agar terlihat aksi UI mana yang memicu query
+ * @author slozoy
+ */
+@Name("agenda.DaoCall")
+@Label("Agenda DAO Call")
+@Description("Operasi CRUD/pencarian pada DatabaseHelper")
+@Category({"Agenda", "Database"})
+public class DaoCallEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,45 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Event JFR untuk import/export JSON (FileHandler)
+ * @author slozoy
+ */
+@Name("agenda.FileTransfer")
+@Label("Agenda Import/Export")
+@Description("Import atau export file JSON agenda")
+@Category({"Agenda", "I/O"})
+@StackTrace(false)
+public class FileTransferEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Records")
+    public int records;
+
+    @Label("Chunks")
+    @Description("Jumlah operasi baca/tulis ke file")
+    public long chunks;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,36 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Event JFR untuk memuat seluruh agenda ke tabel (AgendaApp.loadAllAgenda)
+ * @author slozoy
+ */
+@Name("agenda.LoadAgenda")
+@Label("Load Agenda")
+@Description("Memuat semua agenda dari database ke tabel")
+@Category({"Agenda", "UI"})
+@StackTrace(false)
+public class LoadAgendaEvent extends Event {
+
+    @Label("Row Count")
+    public int rowCount;
+
+    @Label("Query Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queryTime;
+
+    @Label("Table Model Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long modelTime;
+}
@@ -0,0 +1,50 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Event JFR untuk satu pencarian/filter di tabel agenda (AgendaApp.performSearch)
+ * Keyword tidak direkam, hanya panjangnya
+ * @author slozoy
+ */
+@Name("agenda.Search")
+@Label("Agenda Search")
+@Description("Pencarian/filter agenda dari UI beserta waktu tiap fase")
+@Category({"Agenda", "UI"})
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Keyword Length")
+    public int keywordLength;
+
+    @Label("Prioritas Filter")
+    public String prioritas;
+
+    @Label("Fuzzy")
+    public boolean fuzzy;
+
+    @Label("Result Count")
+    public int resultCount;
+
+    @Label("Query Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queryTime;
+
+    @Label("Table Model Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long modelTime;
+
+    @Label("Highlight Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long highlightTime;
+}
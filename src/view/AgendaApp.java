@@ -5,18 +5,29 @@
 package view;
 
 import model.Agenda;
-import database.DatabaseHelper;
+import database.AgendaChangeListener;
+import database.AgendaRepository;
+import database.AgendaSortField;
+import database.AsyncAgendaRepository;
+import util.EdtWatchdog;
 import util.FileHandler;
+import util.Log;
+import util.jfr.LoadAgendaEvent;
+import util.jfr.SearchEvent;
+import view.components.HighlightCellRenderer;
+import view.components.MatchHighlighter;
 import com.toedter.calendar.JDateChooser;
 import java.awt.*;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
 
 /**
  *
@@ -24,11 +35,40 @@ import javax.swing.table.TableRowSorter;
  */
 public class AgendaApp extends javax.swing.JFrame {
     
+    // ========== CONSTANTS ==========
+    private static final Log LOG = Log.get(AgendaApp.class);
+    private static final int MIN_SEARCH_DELAY_MS = 100;
+    private static final int MAX_SEARCH_DELAY_MS = 600;
+    // Di atas jumlah baris ini, klik header diurutkan dengan ORDER BY di database
+    private static final int DATABASE_SORT_THRESHOLD =
+            Integer.getInteger("agenda.sort.databaseThreshold", 50_000);
+    
     // ========== ATTRIBUTES ==========
-    private DatabaseHelper dbHelper;
-    private DefaultTableModel tableModel;
+    private AgendaRepository dbHelper;
+    private AsyncAgendaRepository asyncRepository; // Baca besar di luar EDT (export)
+    private AgendaTableModel tableModel;
+    private final MatchHighlighter highlighter = new MatchHighlighter();
+    private AgendaRowSorter memorySorter; // Sorting bertipe in-memory (tabel kecil)
+    private DatabaseRowSorter databaseSorter; // Sorting via ORDER BY (tabel besar)
+    private SwingWorker<List<Agenda>, Void> sortWorker;
+    private int loadGeneration = 0; // Naik setiap tabel diisi ulang; hasil sort lama diabaikan
+    private final List<Runnable> changesDuringSort = new ArrayList<>(); // Diterapkan ulang ke hasil sort
     private int selectedAgendaId = -1; // -1 berarti tidak ada yang dipilih
     private javax.swing.Timer searchTimer; // Untuk debouncing search
+    private double searchLatencyAvgMillis = 100; // Rata-rata latensi search (EMA)
+    private JCheckBoxMenuItem menuFuzzySearch; // Mode pencarian toleran salah ketik
+    private JCheckBoxMenuItem menuIncludeArchive; // Sertakan agenda yang sudah diarsipkan
+    private boolean searchSuppressed = false; // Abaikan trigger search saat reset form
+    
+    // Filter yang sedang tampil di tabel (untuk update incremental)
+    private String activeKeyword = "";
+    private String activePrioritas = null;
+    private boolean activeFuzzy = false;
+    private boolean activeIncludeArchive = false;
+    
+    // Perubahan data yang menunggu diterapkan ke tabel (dikumpulkan per event batch)
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+    private final List<Agenda> pendingInserts = new ArrayList<>();
     
     /**
      * Creates new form AgendaApp
@@ -45,8 +85,9 @@ public class AgendaApp extends javax.swing.JFrame {
      * Setup database, table, dan konfigurasi tambahan
      */
     private void customInit() {
-        // Initialize Database
-        dbHelper = DatabaseHelper.getInstance();
+        // Initialize Database (engine dipilih lewat -Dagenda.storage=sqlite|memory)
+        dbHelper = AgendaRepository.open();
+        asyncRepository = new AsyncAgendaRepository(dbHelper);
         
         // Set window properties
         setLocationRelativeTo(null); // Center window
@@ -66,6 +107,9 @@ public class AgendaApp extends javax.swing.JFrame {
         // Setup Table Highlighting
         setupTableHighlighting();
         
+        // Setup incremental table updates dari database
+        setupChangeListener();
+        
         // Load initial data
         loadAllAgenda();
         
@@ -81,16 +125,8 @@ public class AgendaApp extends javax.swing.JFrame {
      * Setup table model dan properties
      */
     private void setupTable() {
-        // Define columns
-        String[] columns = {"ID", "Judul", "Tanggal", "Waktu", "Prioritas"};
-        
-        // Create table model (read-only)
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
-            }
-        };
+        // Create table model (read-only, mendukung update incremental)
+        tableModel = new AgendaTableModel();
         
         // Set model to table
         tblAgenda.setModel(tableModel);
@@ -107,9 +143,10 @@ public class AgendaApp extends javax.swing.JFrame {
         tblAgenda.getColumnModel().getColumn(0).setMaxWidth(0);
         tblAgenda.getColumnModel().getColumn(0).setWidth(0);
         
-        // Add row sorter for sorting
-        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(tableModel);
-        tblAgenda.setRowSorter(sorter);
+        // Add row sorter for sorting (comparator bertipe: tanggal, waktu, prioritas)
+        memorySorter = new AgendaRowSorter(tableModel);
+        databaseSorter = new DatabaseRowSorter(tableModel, this::sortInDatabase);
+        tblAgenda.setRowSorter(memorySorter);
         
         // Add selection listener
         tblAgenda.getSelectionModel().addListSelectionListener(e -> {
@@ -143,7 +180,7 @@ public class AgendaApp extends javax.swing.JFrame {
         // Set default value ke waktu sekarang
         spinnerWaktu.setValue(new Date());
         
-        System.out.println("Time Spinner setup completed");
+        LOG.debug("Time Spinner setup completed");
     }
     
     /**
@@ -174,7 +211,7 @@ public class AgendaApp extends javax.swing.JFrame {
             }
         });
 
-        // Setup debounce timer (300ms delay)
+        // Setup debounce timer (awal 300ms, disesuaikan dengan latensi query)
         searchTimer = new javax.swing.Timer(300, e -> performSearch());
         searchTimer.setRepeats(false);
 
@@ -202,6 +239,18 @@ public class AgendaApp extends javax.swing.JFrame {
             }
         });
 
+        // ========== MODE PENCARIAN (FUZZY / ARSIP) ==========
+
+        // Klik kanan pada kotak pencarian untuk memilih mode fuzzy atau menyertakan arsip
+        menuFuzzySearch = new JCheckBoxMenuItem("Pencarian fuzzy (toleran salah ketik)");
+        menuFuzzySearch.addActionListener(e -> performSearch());
+        menuIncludeArchive = new JCheckBoxMenuItem("Sertakan arsip (agenda lama)");
+        menuIncludeArchive.addActionListener(e -> performSearch());
+        JPopupMenu searchMenu = new JPopupMenu();
+        searchMenu.add(menuFuzzySearch);
+        searchMenu.add(menuIncludeArchive);
+        txtCari.setComponentPopupMenu(searchMenu);
+
         // ========== REAL-TIME FILTER ==========
 
         // ComboBox filter otomatis trigger search
@@ -211,46 +260,45 @@ public class AgendaApp extends javax.swing.JFrame {
             }
         });
 
-        System.out.println("Real-time search & filter setup completed");
+        LOG.debug("Real-time search & filter setup completed");
     }
     
     /**
      * Setup table highlighting untuk search results
+     * Posisi kecocokan di-cache oleh MatchHighlighter (baris terlihat dihitung setelah pencarian)
      */
     private void setupTableHighlighting() {
-        tblAgenda.setDefaultRenderer(Object.class, new javax.swing.table.DefaultTableCellRenderer() {
+        tblAgenda.setDefaultRenderer(Object.class, new HighlightCellRenderer(highlighter));
+
+        LOG.debug("Table highlighting setup completed");
+    }
+    
+    /**
+     * Setup listener perubahan data dari database
+     * Insert/update/delete diterapkan per baris ke table model, tanpa reload
+     */
+    private void setupChangeListener() {
+        dbHelper.addChangeListener(new AgendaChangeListener() {
             @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                    boolean isSelected, boolean hasFocus, int row, int column) {
-
-                Component c = super.getTableCellRendererComponent(table, value, 
-                        isSelected, hasFocus, row, column);
-
-                if (!isSelected) {
-                    String keyword = txtCari.getText().trim().toLowerCase();
-
-                    // Highlight HANYA jika ada keyword valid (bukan placeholder dan bukan kosong)
-                    boolean hasValidKeyword = !keyword.isEmpty() && 
-                                             !keyword.equals("cari agenda....");
-
-                    if (hasValidKeyword) {
-                        if (value != null && value.toString().toLowerCase().contains(keyword)) {
-                            c.setBackground(new Color(255, 255, 200)); // Yellow highlight
-                        } else {
-                            // Alternate row colors
-                            c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(245, 245, 245));
-                        }
-                    } else {
-                        // Alternate row colors (no highlight)
-                        c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(245, 245, 245));
-                    }
-                }
+            public void agendaInserted(Agenda agenda) {
+                queueInsert(agenda);
+            }
 
-                return c;
+            @Override
+            public void agendaUpdated(Agenda agenda) {
+                queueChange(() -> applyAgendaUpdated(agenda));
+            }
+
+            @Override
+            public void agendaDeleted(int id) {
+                queueChange(() -> tableModel.removeAgenda(id));
             }
-        });
 
-        System.out.println("Table highlighting setup completed");
+            @Override
+            public void agendaReloaded() {
+                queueChange(AgendaApp.this::performSearch);
+            }
+        });
     }
     
     // ========== DATA METHODS ==========
@@ -259,25 +307,139 @@ public class AgendaApp extends javax.swing.JFrame {
      * Load semua agenda dari database ke table
      */
     private void loadAllAgenda() {
-        // Clear table
-        tableModel.setRowCount(0);
+        LoadAgendaEvent event = new LoadAgendaEvent();
+        event.begin();
+        long loadStart = System.nanoTime();
         
-        // Get data from database
-        List<Agenda> agendaList = dbHelper.getAllAgenda();
+        // Get data from database (arsip hanya jika dipilih di menu pencarian)
+        boolean includeArchive = menuIncludeArchive.isSelected();
+        List<Agenda> agendaList = includeArchive
+                ? dbHelper.searchAgenda("", null, true) : dbHelper.getAllAgenda();
+        long queryDone = System.nanoTime();
         
         // Populate table
-        for (Agenda agenda : agendaList) {
-            Object[] row = {
-                agenda.getId(),
-                agenda.getJudul(),
-                agenda.getTanggalFormatted(),
-                agenda.getWaktuFormatted(),
-                agenda.getPrioritas()
-            };
-            tableModel.addRow(row);
+        cancelDatabaseSort();
+        highlighter.setKeyword("");
+        tableModel.setAgendaList(agendaList, AgendaTableModel.DEFAULT_ORDER);
+        activeKeyword = "";
+        activePrioritas = null;
+        activeFuzzy = false;
+        activeIncludeArchive = includeArchive;
+        updateRowSorter();
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.rowCount = agendaList.size();
+            event.queryTime = queryDone - loadStart;
+            event.modelTime = System.nanoTime() - queryDone;
+            event.commit();
         }
         
-        System.out.println("Loaded " + agendaList.size() + " agenda(s)");
+        LOG.debug(() -> "Loaded " + agendaList.size() + " agenda(s)");
+    }
+    
+    /**
+     * Antrekan agenda baru untuk disisipkan ke tabel
+     * Insert yang datang beruntun (misalnya import) diterapkan dalam satu batch
+     * @param agenda Agenda baru
+     */
+    private void queueInsert(Agenda agenda) {
+        runOnEdt(() -> {
+            scheduleFlushIfIdle();
+            pendingInserts.add(agenda);
+        });
+    }
+    
+    /**
+     * Antrekan perubahan data (update/delete/reload) untuk diterapkan ke tabel
+     * @param change Perubahan yang akan diterapkan
+     */
+    private void queueChange(Runnable change) {
+        runOnEdt(() -> {
+            scheduleFlushIfIdle();
+            flushPendingInserts(); // Pertahankan urutan event
+            pendingChanges.add(change);
+        });
+    }
+    
+    private void scheduleFlushIfIdle() {
+        if (pendingChanges.isEmpty() && pendingInserts.isEmpty()) {
+            SwingUtilities.invokeLater(this::flushPendingChanges);
+        }
+    }
+    
+    private static void runOnEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    }
+    
+    /**
+     * Terapkan semua perubahan yang tertunda ke table model
+     */
+    private void flushPendingChanges() {
+        flushPendingInserts();
+        List<Runnable> changes = new ArrayList<>(pendingChanges);
+        pendingChanges.clear();
+        for (Runnable change : changes) {
+            SwingWorker<List<Agenda>, Void> runningSort = sortWorker;
+            change.run();
+            if (runningSort != null && sortWorker == runningSort) {
+                changesDuringSort.add(change); // Hasil sort yang sedang berjalan belum memuatnya
+            }
+        }
+    }
+    
+    private void flushPendingInserts() {
+        if (pendingInserts.isEmpty()) {
+            return;
+        }
+        List<Agenda> inserts = new ArrayList<>(pendingInserts);
+        pendingInserts.clear();
+        if (activeFuzzy) {
+            pendingChanges.add(this::performSearch); // Urutan relevansi harus dihitung ulang
+            return;
+        }
+        List<Agenda> visible = new ArrayList<>();
+        for (Agenda agenda : inserts) {
+            if (matchesActiveFilter(agenda)) {
+                visible.add(agenda);
+            }
+        }
+        pendingChanges.add(() -> tableModel.insertAgendas(visible));
+    }
+    
+    /**
+     * Terapkan update: baris diperbarui, dihapus jika tidak lagi cocok filter,
+     * atau ditambahkan jika sekarang cocok
+     */
+    private void applyAgendaUpdated(Agenda agenda) {
+        if (activeFuzzy) {
+            performSearch();
+        } else if (matchesActiveFilter(agenda)) {
+            tableModel.insertAgenda(agenda); // Insert menjadi update jika ID sudah ada
+        } else {
+            tableModel.removeAgenda(agenda.getId());
+        }
+    }
+    
+    /**
+     * Cek apakah agenda cocok dengan keyword dan filter prioritas yang sedang aktif
+     * (semantik sama dengan pencarian LIKE di database)
+     */
+    private boolean matchesActiveFilter(Agenda agenda) {
+        if (activePrioritas != null && !activePrioritas.equals(agenda.getPrioritas())) {
+            return false;
+        }
+        if (activeKeyword.isEmpty()) {
+            return true;
+        }
+        String needle = activeKeyword.toLowerCase(Locale.ROOT);
+        return (agenda.getJudul() != null && agenda.getJudul().toLowerCase(Locale.ROOT).contains(needle))
+                || (agenda.getDeskripsi() != null
+                    && agenda.getDeskripsi().toLowerCase(Locale.ROOT).contains(needle));
     }
     
     /**
@@ -285,6 +447,9 @@ public class AgendaApp extends javax.swing.JFrame {
      * Menghindari search terlalu sering saat user masih mengetik
      */
     private void scheduleSearch() {
+        if (searchSuppressed) {
+            return;
+        }
         if (searchTimer.isRunning()) {
             searchTimer.restart();
         } else {
@@ -297,6 +462,10 @@ public class AgendaApp extends javax.swing.JFrame {
      * Method utama untuk pencarian dan filtering
      */
     private void performSearch() {
+        if (searchSuppressed) {
+            return;
+        }
+        
         // Get search keyword
         String keyword = txtCari.getText().trim();
 
@@ -312,55 +481,172 @@ public class AgendaApp extends javax.swing.JFrame {
         // Perbaikan bug: Clear form karena selection akan hilang setelah table di-reload
         clearFormOnly();
 
-        // Clear table
-        tableModel.setRowCount(0);
-
-        // Get data from database
-        List<Agenda> results;
-
-        // Jika keyword kosong, ambil semua data
-        if (keyword.isEmpty()) {
-            results = dbHelper.getAllAgenda();
-        } else {
-            // Jika ada keyword, lakukan search
-            results = dbHelper.searchAgenda(keyword);
-        }
-
-        // Apply filter prioritas HANYA jika ada pilihan valid
-        List<Agenda> filteredResults;
-
         // Cek apakah filter prioritas dipilih (bukan default/placeholder)
         boolean hasValidPrioritasFilter = selectedPrioritas != null && 
                                           !selectedPrioritas.equals("-- Semua Prioritas --") &&
                                           !selectedPrioritas.equals("- Pilih Prioritas -") &&
                                           !selectedPrioritas.trim().isEmpty();
+        String prioritasFilter = hasValidPrioritasFilter ? selectedPrioritas : null;
 
-        if (hasValidPrioritasFilter) {
-            // Filter by prioritas jika dipilih
-            filteredResults = results.stream()
-                    .filter(agenda -> agenda.getPrioritas().equals(selectedPrioritas))
-                    .collect(java.util.stream.Collectors.toList());
+        // Get data (dari cache hasil pencarian jika tersedia)
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long searchStart = System.nanoTime();
+        List<Agenda> filteredResults;
+
+        if (!keyword.isEmpty() && menuFuzzySearch.isSelected()) {
+            // Mode fuzzy: hasil terurut berdasarkan kemiripan judul
+            filteredResults = dbHelper.fuzzySearchAgenda(keyword);
+            if (hasValidPrioritasFilter) {
+                filteredResults.removeIf(agenda -> !selectedPrioritas.equals(agenda.getPrioritas()));
+            }
         } else {
-            // Tidak filter, gunakan semua hasil
-            filteredResults = results;
+            // Keyword kosong = semua data, filter prioritas diterapkan di data layer
+            // Arsip hanya dibaca jika dipilih (default: partisi aktif saja)
+            filteredResults = dbHelper.searchAgenda(keyword, prioritasFilter,
+                    menuIncludeArchive.isSelected());
         }
 
         // Populate table with filtered results
-        for (Agenda agenda : filteredResults) {
-            Object[] row = {
-                agenda.getId(),
-                agenda.getJudul(),
-                agenda.getTanggalFormatted(),
-                agenda.getWaktuFormatted(),
-                agenda.getPrioritas()
-            };
-            tableModel.addRow(row);
+        // Hasil fuzzy sudah terurut berdasarkan relevansi, jangan diurutkan ulang
+        boolean fuzzy = !keyword.isEmpty() && menuFuzzySearch.isSelected();
+        long queryDone = System.nanoTime();
+        cancelDatabaseSort();
+        highlighter.setKeyword(keyword);
+        tableModel.setAgendaList(filteredResults, fuzzy ? null : AgendaTableModel.DEFAULT_ORDER);
+        long modelDone = System.nanoTime();
+        highlighter.prepare(tblAgenda);
+        long highlightDone = System.nanoTime();
+        activeKeyword = keyword;
+        activePrioritas = prioritasFilter;
+        activeFuzzy = fuzzy;
+        activeIncludeArchive = !fuzzy && menuIncludeArchive.isSelected();
+        adaptSearchDelay(highlightDone - searchStart);
+        updateRowSorter();
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.keywordLength = keyword.length();
+            event.prioritas = prioritasFilter;
+            event.fuzzy = fuzzy;
+            event.resultCount = filteredResults.size();
+            event.queryTime = queryDone - searchStart;
+            event.modelTime = modelDone - queryDone;
+            event.highlightTime = highlightDone - modelDone;
+            event.commit();
         }
 
         // Build status message yang lebih informatif
-        String statusMessage = buildSearchStatus(filteredResults.size(), keyword, 
-                                                 hasValidPrioritasFilter, selectedPrioritas);
-        System.out.println(statusMessage);
+        String statusKeyword = keyword;
+        LOG.debug(() -> buildSearchStatus(filteredResults.size(), statusKeyword,
+                                          hasValidPrioritasFilter, selectedPrioritas));
+    }
+    
+    /**
+     * Pilih row sorter sesuai ukuran data: in-memory untuk tabel kecil,
+     * ORDER BY di database untuk tabel besar (agar sorting tidak memblokir EDT)
+     */
+    private void updateRowSorter() {
+        boolean large = !activeFuzzy && tableModel.getRowCount() > DATABASE_SORT_THRESHOLD;
+        RowSorter<AgendaTableModel> wanted = large ? databaseSorter : memorySorter;
+        if (tblAgenda.getRowSorter() != wanted) {
+            tblAgenda.setRowSorter(wanted);
+            databaseSorter.setSortKeys(null);
+        } else if (large && !databaseSorter.getSortKeys().isEmpty()) {
+            // Data baru dimuat dengan urutan default, terapkan ulang urutan pilihan user
+            sortInDatabase(databaseSorter.getSortKeys().get(0));
+        }
+    }
+    
+    /**
+     * Muat ulang data dengan ORDER BY di database (background thread)
+     * @param key Kolom dan arah pengurutan dari header tabel
+     */
+    private void sortInDatabase(RowSorter.SortKey key) {
+        final String keyword = activeKeyword;
+        final String prioritas = activePrioritas;
+        final boolean includeArchive = activeIncludeArchive;
+        final int column = key.getColumn();
+        final boolean ascending = key.getSortOrder() != SortOrder.DESCENDING;
+        
+        cancelDatabaseSort(); // Klik header terakhir yang berlaku
+        final int generation = loadGeneration;
+        sortWorker = new SwingWorker<List<Agenda>, Void>() {
+            @Override
+            protected List<Agenda> doInBackground() {
+                return dbHelper.getAgendaSorted(keyword, prioritas, sortFieldFor(column), ascending,
+                        includeArchive);
+            }
+            
+            @Override
+            protected void done() {
+                // cancel() tidak berpengaruh jika doInBackground sudah selesai, jadi cek generasi
+                if (isCancelled() || generation != loadGeneration) {
+                    return;
+                }
+                try {
+                    tableModel.setAgendaList(get(), AgendaTableModel.orderFor(sortFieldFor(column), ascending));
+                    highlighter.prepare(tblAgenda);
+                    // Perubahan yang sudah diterapkan ke tabel selama query berjalan
+                    // (insert/update menjadi upsert, jadi aman diulang)
+                    List<Runnable> missed = new ArrayList<>(changesDuringSort);
+                    changesDuringSort.clear();
+                    sortWorker = null;
+                    for (Runnable change : missed) {
+                        change.run();
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    LOG.error("Failed to sort agenda!", e);
+                    sortWorker = null;
+                    changesDuringSort.clear();
+                }
+            }
+        };
+        sortWorker.execute();
+    }
+    
+    /**
+     * Batalkan sort database yang sedang berjalan; hasilnya tidak lagi diterapkan
+     * (dipanggil sebelum tabel diisi ulang oleh load/search/sort baru)
+     */
+    private void cancelDatabaseSort() {
+        loadGeneration++;
+        if (sortWorker != null) {
+            sortWorker.cancel(false);
+            sortWorker = null;
+        }
+        changesDuringSort.clear();
+    }
+    
+    /**
+     * Mapping kolom tabel ke kolom pengurutan database
+     */
+    private static AgendaSortField sortFieldFor(int column) {
+        switch (column) {
+            case AgendaTableModel.COL_JUDUL:
+                return AgendaSortField.JUDUL;
+            case AgendaTableModel.COL_WAKTU:
+                return AgendaSortField.WAKTU;
+            case AgendaTableModel.COL_PRIORITAS:
+                return AgendaSortField.PRIORITAS;
+            case AgendaTableModel.COL_ID:
+                return AgendaSortField.ID;
+            default:
+                return AgendaSortField.TANGGAL;
+        }
+    }
+    
+    /**
+     * Sesuaikan delay debounce dengan latensi pencarian terakhir
+     * Query cepat = delay pendek (lebih responsif), query lambat = delay lebih panjang
+     * @param elapsedNanos Durasi pencarian terakhir
+     */
+    private void adaptSearchDelay(long elapsedNanos) {
+        double elapsedMillis = elapsedNanos / 1_000_000.0;
+        searchLatencyAvgMillis = searchLatencyAvgMillis * 0.7 + elapsedMillis * 0.3;
+        int delay = (int) Math.round(MIN_SEARCH_DELAY_MS + 2 * searchLatencyAvgMillis);
+        delay = Math.max(MIN_SEARCH_DELAY_MS, Math.min(MAX_SEARCH_DELAY_MS, delay));
+        searchTimer.setInitialDelay(delay);
     }
     
     /**
@@ -409,8 +695,8 @@ public class AgendaApp extends javax.swing.JFrame {
             // Convert view index to model index (karena ada sorting)
             int modelRow = tblAgenda.convertRowIndexToModel(selectedRow);
             
-            // Get ID from hidden column
-            selectedAgendaId = (int) tableModel.getValueAt(modelRow, 0);
+            // Get ID dari agenda di baris model
+            selectedAgendaId = tableModel.getAgendaAt(modelRow).getId();
             
             // Load data ke form
             Agenda agenda = dbHelper.getAgendaById(selectedAgendaId);
@@ -437,7 +723,7 @@ public class AgendaApp extends javax.swing.JFrame {
                 btnEdit.setEnabled(true);
                 btnHapus.setEnabled(true);
                 
-                System.out.println("Agenda selected: " + agenda.getJudul());
+                LOG.debug(() -> "Agenda selected: " + agenda.getJudul());
             }
         } else {
             clearSelection();
@@ -468,16 +754,26 @@ public class AgendaApp extends javax.swing.JFrame {
         // Clear selection
         clearSelection();
 
-        // Reset search box ke placeholder
-        txtCari.setForeground(Color.GRAY);
-        txtCari.setText("Cari agenda....");
+        // Reload hanya jika sebelumnya ada pencarian/filter aktif;
+        // perubahan data sendiri sudah diterapkan incremental lewat change listener
+        boolean hadFilter = !activeKeyword.isEmpty() || activePrioritas != null
+                || cmbFilterPrioritas.getSelectedIndex() != 0;
 
-        // Reset filter prioritas ke default
-        cmbFilterPrioritas.setSelectedIndex(0);
+        // Reset search box dan filter tanpa memicu search berulang
+        searchSuppressed = true;
+        try {
+            searchTimer.stop();
+            txtCari.setForeground(Color.GRAY);
+            txtCari.setText("Cari agenda....");
+            cmbFilterPrioritas.setSelectedIndex(0);
+        } finally {
+            searchSuppressed = false;
+        }
 
-        // Reload semua data tanpa filter
-        loadAllAgenda();
-        System.out.println("Form cleared");
+        if (hadFilter) {
+            loadAllAgenda();
+        }
+        LOG.debug("Form cleared");
     }
     
     /**
@@ -495,7 +791,7 @@ public class AgendaApp extends javax.swing.JFrame {
        // Clear selection & disable buttons
        clearSelection();
 
-       System.out.println("Form fields cleared (search/filter tetap aktif)");
+       LOG.debug("Form fields cleared (search/filter tetap aktif)");
    }
     
     /**
@@ -627,7 +923,7 @@ public class AgendaApp extends javax.swing.JFrame {
            }
        });
 
-       System.out.println("Keyboard shortcuts setup completed (Ctrl+F)");
+       LOG.debug("Keyboard shortcuts setup completed (Ctrl+F)");
    }
 
     /**
@@ -955,9 +1251,8 @@ public class AgendaApp extends javax.swing.JFrame {
                         "Sukses", 
                         JOptionPane.INFORMATION_MESSAGE);
                 
-                loadAllAgenda();
                 clearForm();
-                System.out.println("Agenda diupdate: " + agenda.getJudul());
+                LOG.info("Agenda diupdate: " + agenda.getJudul());
             } else {
                 JOptionPane.showMessageDialog(this, 
                         "Gagal mengupdate agenda!", 
@@ -1008,9 +1303,9 @@ public class AgendaApp extends javax.swing.JFrame {
                         "Sukses", 
                         JOptionPane.INFORMATION_MESSAGE);
                 
-                loadAllAgenda();
+                int deletedId = selectedAgendaId;
                 clearForm();
-                System.out.println("Agenda dihapus (ID: " + selectedAgendaId + ")");
+                LOG.info("Agenda dihapus (ID: " + deletedId + ")");
             } else {
                 JOptionPane.showMessageDialog(this, 
                         "Gagal menghapus agenda!", 
@@ -1038,9 +1333,8 @@ public class AgendaApp extends javax.swing.JFrame {
                     "Sukses", 
                     JOptionPane.INFORMATION_MESSAGE);
             
-            loadAllAgenda();
             clearForm();
-            System.out.println("Agenda baru ditambahkan: " + agenda.getJudul());
+            LOG.info("Agenda baru ditambahkan: " + agenda.getJudul());
         } else {
             JOptionPane.showMessageDialog(this, 
                     "Gagal menyimpan agenda!", 
@@ -1051,12 +1345,33 @@ public class AgendaApp extends javax.swing.JFrame {
     
     /**
      * Handler untuk tombol Export JSON
-     * Export data ke file JSON
+     * Export data ke file JSON; data dibaca di virtual thread (AsyncAgendaRepository),
+     * dialog tetap di EDT
      */
     private void btnExportJSONActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnExportJSONActionPerformed
         // TODO add your handling code here:
-        List<Agenda> agendaList = dbHelper.getAllAgenda();
-        
+        // Export mencakup arsip, agar agenda lama tidak hilang dari file export
+        btnExportJSON.setEnabled(false);
+        asyncRepository.call(db -> db.searchAgenda("", null, true))
+                .whenComplete((agendaList, error) -> SwingUtilities.invokeLater(() -> {
+                    btnExportJSON.setEnabled(true);
+                    if (error != null) {
+                        LOG.error("Failed to read agenda for export!", error);
+                        JOptionPane.showMessageDialog(this, 
+                                "Gagal membaca data untuk export!", 
+                                "Error", 
+                                JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    exportAgenda(agendaList);
+                }));
+    }//GEN-LAST:event_btnExportJSONActionPerformed
+    
+    /**
+     * Tulis agenda ke file JSON yang dipilih user
+     * @param agendaList Semua agenda (termasuk arsip)
+     */
+    private void exportAgenda(List<Agenda> agendaList) {
         if (agendaList.isEmpty()) {
             JOptionPane.showMessageDialog(this, 
                     "Tidak ada data untuk di-export!", 
@@ -1071,14 +1386,14 @@ public class AgendaApp extends javax.swing.JFrame {
                     "Total: " + agendaList.size() + " agenda", 
                     "Sukses", 
                     JOptionPane.INFORMATION_MESSAGE);
-            System.out.println("Export to JSON successful (" + agendaList.size() + " agenda)");
+            LOG.info("Export to JSON successful (" + agendaList.size() + " agenda)");
         } else {
             JOptionPane.showMessageDialog(this, 
                     "Export dibatalkan atau gagal!", 
                     "Info", 
                     JOptionPane.INFORMATION_MESSAGE);
         }
-    }//GEN-LAST:event_btnExportJSONActionPerformed
+    }
     
     /**
      * Handler untuk tombol Import JSON
@@ -1097,9 +1412,28 @@ public class AgendaApp extends javax.swing.JFrame {
             List<Agenda> importedList = FileHandler.importFromJSON(this);
             
             if (importedList != null && !importedList.isEmpty()) {
-                int successCount = 0;
-                int failedCount = 0;
-                
+                importInBackground(importedList);
+            } else {
+                JOptionPane.showMessageDialog(this, 
+                        "Import dibatalkan atau file kosong/tidak valid!", 
+                        "Info", 
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        }
+    }//GEN-LAST:event_btnImportJSONActionPerformed
+
+    /**
+     * Jalankan import di background: semua insert diantrekan sekaligus agar writer
+     * meng-commit per batch (antrean bisa penuh, jadi tidak di EDT), hasilnya
+     * ditampilkan setelah semua insert selesai
+     * @param importedList Agenda hasil baca file JSON
+     */
+    private void importInBackground(List<Agenda> importedList) {
+        btnImportJSON.setEnabled(false);
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                List<CompletableFuture<Boolean>> pending = new ArrayList<>(importedList.size());
                 for (Agenda agenda : importedList) {
                     // Reset ID untuk auto-increment (buat agenda baru)
                     Agenda newAgenda = new Agenda(
@@ -1108,15 +1442,32 @@ public class AgendaApp extends javax.swing.JFrame {
                         agenda.getTanggalWaktu(),
                         agenda.getPrioritas()
                     );
-                    
-                    if (dbHelper.insertAgenda(newAgenda)) {
+                    pending.add(dbHelper.insertAgendaAsync(newAgenda).exceptionally(e -> false));
+                }
+                CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+                
+                int successCount = 0;
+                for (CompletableFuture<Boolean> insert : pending) {
+                    if (insert.join()) {
                         successCount++;
-                    } else {
-                        failedCount++;
                     }
                 }
+                return successCount;
+            }
+            
+            @Override
+            protected void done() {
+                btnImportJSON.setEnabled(true);
+                int successCount;
+                try {
+                    successCount = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    LOG.error("Import failed!", e);
+                    successCount = 0;
+                }
+                int failedCount = importedList.size() - successCount;
                 
-                JOptionPane.showMessageDialog(this, 
+                JOptionPane.showMessageDialog(AgendaApp.this, 
                         "Import selesai!\n\n" +
                         "Berhasil: " + successCount + " agenda\n" +
                         "Gagal: " + failedCount + " agenda\n" +
@@ -1124,16 +1475,10 @@ public class AgendaApp extends javax.swing.JFrame {
                         "Sukses", 
                         JOptionPane.INFORMATION_MESSAGE);
                 
-                loadAllAgenda();
-                System.out.println("Import completed: " + successCount + "/" + importedList.size() + " success");
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                        "Import dibatalkan atau file kosong/tidak valid!", 
-                        "Info", 
-                        JOptionPane.INFORMATION_MESSAGE);
+                LOG.info("Import completed: " + successCount + "/" + importedList.size() + " success");
             }
-        }
-    }//GEN-LAST:event_btnImportJSONActionPerformed
+        }.execute();
+    }
 
     /**
      * @param args the command line arguments
@@ -1165,6 +1510,9 @@ public class AgendaApp extends javax.swing.JFrame {
         }
         //</editor-fold>
 
+        // Watchdog untuk mendeteksi EDT yang macet (agenda.edt.watchdog=false untuk menonaktifkan)
+        EdtWatchdog.startIfEnabled();
+
         /* Create and display the form */
         java.awt.EventQueue.invokeLater(new Runnable() {
             public void run() {
@@ -0,0 +1,74 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package view;
+
+import javax.swing.table.TableRowSorter;
+
+/**
+ *
+ * Row sorter in-memory dengan comparator bertipe
+ * Sorting memakai nilai dari AgendaTableModel.getSortValueAt (epoch tanggal,
+ * detik waktu, peringkat prioritas), bukan string tampilan "dd-MM-yyyy"
+ *
+ * @author slozoy
+ */
+public class AgendaRowSorter extends TableRowSorter<AgendaTableModel> {
+
+    /**
+     * Constructor
+     * @param model Table model agenda
+     */
+    public AgendaRowSorter(AgendaTableModel model) {
+        super(model);
+        setModelWrapper(new SortValueWrapper(model));
+        for (int column = 0; column < model.getColumnCount(); column++) {
+            setComparator(column, AgendaTableModel.sortValueComparator(column));
+        }
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Model wrapper yang memberikan nilai sort bertipe ke DefaultRowSorter
+     */
+    private static class SortValueWrapper extends ModelWrapper<AgendaTableModel, Integer> {
+        private final AgendaTableModel model;
+
+        SortValueWrapper(AgendaTableModel model) {
+            this.model = model;
+        }
+
+        @Override
+        public AgendaTableModel getModel() {
+            return model;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return model.getColumnCount();
+        }
+
+        @Override
+        public int getRowCount() {
+            return model.getRowCount();
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return model.getSortValueAt(row, column);
+        }
+
+        @Override
+        public String getStringValueAt(int row, int column) {
+            Object value = model.getValueAt(row, column);
+            return value == null ? "" : value.toString();
+        }
+
+        @Override
+        public Integer getIdentifier(int row) {
+            return row;
+        }
+    }
+}
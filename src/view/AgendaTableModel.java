@@ -0,0 +1,322 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package view;
+
+import model.Agenda;
+import database.AgendaSortField;
+import java.text.Collator;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ *
+ * Table model untuk tabel agenda
+ * Mendukung perubahan incremental (insert/update/delete per baris) dengan
+ * fireTableRowsInserted/Updated/Deleted, tanpa memuat ulang seluruh tabel
+ *
+ * @author slozoy
+ */
+public class AgendaTableModel extends AbstractTableModel {
+
+    // ========== CONSTANTS ==========
+    public static final int COL_ID = 0;
+    public static final int COL_JUDUL = 1;
+    public static final int COL_TANGGAL = 2;
+    public static final int COL_WAKTU = 3;
+    public static final int COL_PRIORITAS = 4;
+
+    /**
+     * Urutan default, sama dengan ORDER BY tanggal_waktu ASC di database
+     */
+    public static final Comparator<Agenda> DEFAULT_ORDER =
+            Comparator.comparing(Agenda::getTanggalWaktu).thenComparingInt(Agenda::getId);
+
+    private static final int BULK_THRESHOLD = 64;
+    private static final String[] COLUMNS = {"ID", "Judul", "Tanggal", "Waktu", "Prioritas"};
+
+    // ========== ATTRIBUTES ==========
+    private final List<Row> rows = new ArrayList<>();
+    private final Map<Integer, Row> rowById = new HashMap<>();
+    private Comparator<Agenda> order = DEFAULT_ORDER;
+
+    // ========== TABLE MODEL ==========
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Make table read-only
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Row row = rows.get(rowIndex);
+        switch (columnIndex) {
+            case COL_ID:
+                return row.agenda.getId();
+            case COL_JUDUL:
+                return row.agenda.getJudul();
+            case COL_TANGGAL:
+                return row.tanggal;
+            case COL_WAKTU:
+                return row.waktu;
+            case COL_PRIORITAS:
+                return row.agenda.getPrioritas();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Nilai bertipe untuk sorting: epoch untuk tanggal, detik-dalam-hari untuk waktu,
+     * peringkat untuk prioritas (bukan string tampilan)
+     * @param rowIndex Index baris model
+     * @param columnIndex Index kolom
+     * @return Nilai Comparable untuk pengurutan
+     */
+    public Object getSortValueAt(int rowIndex, int columnIndex) {
+        Row row = rows.get(rowIndex);
+        switch (columnIndex) {
+            case COL_ID:
+                return row.agenda.getId();
+            case COL_JUDUL:
+                return row.agenda.getJudul();
+            case COL_TANGGAL:
+                return row.tanggalKey;
+            case COL_WAKTU:
+                return row.waktuKey;
+            case COL_PRIORITAS:
+                return row.agenda.getPrioritasRank();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Comparator untuk nilai dari getSortValueAt pada kolom tertentu
+     * @param columnIndex Index kolom
+     * @return Comparator nilai sort
+     */
+    public static Comparator<?> sortValueComparator(int columnIndex) {
+        if (columnIndex == COL_JUDUL) {
+            return Collator.getInstance();
+        }
+        return Comparator.naturalOrder();
+    }
+
+    /**
+     * Comparator agenda yang setara dengan ORDER BY di database
+     * (dipakai untuk menjaga urutan saat update incremental dengan sort di database)
+     * @param field Kolom pengurutan database
+     * @param ascending true untuk urutan naik
+     * @return Comparator agenda
+     */
+    public static Comparator<Agenda> orderFor(AgendaSortField field, boolean ascending) {
+        Comparator<Agenda> order = field.comparator().thenComparingInt(Agenda::getId);
+        return ascending ? order : order.reversed();
+    }
+
+    // ========== DATA METHODS ==========
+
+    /**
+     * Ganti seluruh isi tabel
+     * @param agendaList Data baru
+     * @param order Urutan baris, atau null untuk mempertahankan urutan list
+     *              (misalnya hasil pencarian fuzzy yang terurut berdasarkan relevansi)
+     */
+    public void setAgendaList(List<Agenda> agendaList, Comparator<Agenda> order) {
+        this.order = order;
+        rows.clear();
+        rowById.clear();
+        for (Agenda agenda : agendaList) {
+            Row row = new Row(agenda);
+            rows.add(row);
+            rowById.put(agenda.getId(), row);
+        }
+        if (order != null) {
+            rows.sort((a, b) -> order.compare(a.agenda, b.agenda));
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Tambah satu agenda pada posisi sesuai urutan
+     * Jika ID sudah ada, diperlakukan sebagai update
+     * @param agenda Agenda baru
+     */
+    public void insertAgenda(Agenda agenda) {
+        if (rowById.containsKey(agenda.getId())) {
+            updateAgenda(agenda);
+            return;
+        }
+        Row row = new Row(agenda);
+        int index = insertionPoint(agenda);
+        rows.add(index, row);
+        rowById.put(agenda.getId(), row);
+        fireTableRowsInserted(index, index);
+    }
+
+    /**
+     * Tambah banyak agenda sekaligus (misalnya hasil import)
+     * Untuk jumlah besar, semua baris disisipkan lalu diurutkan satu kali
+     * @param agendaList Agenda baru
+     */
+    public void insertAgendas(List<Agenda> agendaList) {
+        if (agendaList.size() < BULK_THRESHOLD) {
+            for (Agenda agenda : agendaList) {
+                insertAgenda(agenda);
+            }
+            return;
+        }
+        for (Agenda agenda : agendaList) {
+            Row row = new Row(agenda);
+            Row old = rowById.put(agenda.getId(), row);
+            if (old != null) {
+                rows.set(rows.indexOf(old), row);
+            } else {
+                rows.add(row);
+            }
+        }
+        if (order != null) {
+            rows.sort((a, b) -> order.compare(a.agenda, b.agenda));
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Update satu agenda; baris dipindah jika posisi urutannya berubah
+     * @param agenda Agenda dengan data terbaru
+     */
+    public void updateAgenda(Agenda agenda) {
+        Row old = rowById.get(agenda.getId());
+        if (old == null) {
+            return;
+        }
+        int index = indexOf(old);
+        Row row = new Row(agenda);
+        rows.set(index, row);
+        rowById.put(agenda.getId(), row);
+
+        boolean stillOrdered = order == null
+                || ((index == 0 || order.compare(rows.get(index - 1).agenda, agenda) <= 0)
+                && (index == rows.size() - 1 || order.compare(agenda, rows.get(index + 1).agenda) <= 0));
+        if (stillOrdered) {
+            fireTableRowsUpdated(index, index);
+        } else {
+            rows.remove(index);
+            fireTableRowsDeleted(index, index);
+            int target = insertionPoint(agenda);
+            rows.add(target, row);
+            fireTableRowsInserted(target, target);
+        }
+    }
+
+    /**
+     * Hapus satu agenda dari tabel
+     * @param id ID agenda
+     */
+    public void removeAgenda(int id) {
+        Row row = rowById.remove(id);
+        if (row == null) {
+            return;
+        }
+        int index = indexOf(row);
+        rows.remove(index);
+        fireTableRowsDeleted(index, index);
+    }
+
+    /**
+     * Cek apakah agenda ada di tabel
+     * @param id ID agenda
+     * @return true jika ada
+     */
+    public boolean containsAgenda(int id) {
+        return rowById.containsKey(id);
+    }
+
+    /**
+     * Ambil agenda pada baris model tertentu
+     * @param rowIndex Index baris model
+     * @return Objek Agenda
+     */
+    public Agenda getAgendaAt(int rowIndex) {
+        return rows.get(rowIndex).agenda;
+    }
+
+    // ========== HELPER METHODS ==========
+
+    /**
+     * Posisi sisip dengan binary search (O(log n)), append jika tanpa urutan
+     */
+    private int insertionPoint(Agenda agenda) {
+        if (order == null) {
+            return rows.size();
+        }
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(rows.get(mid).agenda, agenda) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Cari index baris; binary search jika terurut, fallback linear scan
+     */
+    private int indexOf(Row row) {
+        if (order != null) {
+            int index = Collections.binarySearch(rows, row, (a, b) -> order.compare(a.agenda, b.agenda));
+            if (index >= 0 && rows.get(index) == row) {
+                return index;
+            }
+        }
+        return rows.indexOf(row);
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Satu baris tabel dengan nilai tampilan yang sudah diformat
+     */
+    private static class Row {
+        private final Agenda agenda;
+        private final String tanggal;
+        private final String waktu;
+        private final Long tanggalKey;
+        private final Integer waktuKey;
+
+        Row(Agenda agenda) {
+            this.agenda = agenda;
+            this.tanggal = agenda.getTanggalFormatted();
+            this.waktu = agenda.getWaktuFormatted();
+            this.tanggalKey = agenda.getTanggalWaktu().toEpochSecond(ZoneOffset.UTC);
+            this.waktuKey = agenda.getTanggalWaktu().toLocalTime().toSecondOfDay();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+/**
+ *
+ * Row sorter untuk tabel besar: klik header tidak mengurutkan di memori (EDT),
+ * tetapi meneruskan sort key ke callback yang memuat ulang data dengan
+ * ORDER BY di database. Urutan view sama dengan urutan model (identity mapping)
+ *
+ * @author slozoy
+ */
+public class DatabaseRowSorter extends RowSorter<AgendaTableModel> {
+
+    // ========== ATTRIBUTES ==========
+    private final AgendaTableModel model;
+    private final Consumer<SortKey> sortHandler;
+    private List<SortKey> sortKeys = Collections.emptyList();
+
+    /**
+     * Constructor
+     * @param model Table model agenda
+     * @param sortHandler Callback yang memuat data dengan urutan baru
+     */
+    public DatabaseRowSorter(AgendaTableModel model, Consumer<SortKey> sortHandler) {
+        this.model = model;
+        this.sortHandler = sortHandler;
+    }
+
+    // ========== SORT KEYS ==========
+
+    @Override
+    public AgendaTableModel getModel() {
+        return model;
+    }
+
+    /**
+     * Toggle urutan kolom: ASC -> DESC -> ASC, lalu minta data dari database
+     * @param column Index kolom model
+     */
+    @Override
+    public void toggleSortOrder(int column) {
+        SortOrder order = SortOrder.ASCENDING;
+        if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() == column
+                && sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING) {
+            order = SortOrder.DESCENDING;
+        }
+        SortKey key = new SortKey(column, order);
+        setSortKeys(Collections.singletonList(key));
+        sortHandler.accept(key);
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        sortKeys = keys == null ? Collections.<SortKey>emptyList()
+                : Collections.unmodifiableList(new ArrayList<SortKey>(keys));
+        fireSortOrderChanged(); // Header menampilkan panah sesuai sort key
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    // ========== IDENTITY MAPPING ==========
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        return index;
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        return index;
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    // ========== MODEL EVENTS ==========
+    // Urutan sudah ditentukan oleh database / table model, tidak ada yang perlu dihitung
+
+    @Override
+    public void modelStructureChanged() {
+    }
+
+    @Override
+    public void allRowsChanged() {
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package view.components;
+
+import java.awt.*;
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ *
+ * Cell renderer tabel dengan highlight substring hasil pencarian
+ * Memakai data dari MatchHighlighter dan warna yang di-share,
+ * sehingga painting tidak mengalokasikan objek atau memproses string
+ * @author slozoy
+ */
+public class HighlightCellRenderer extends DefaultTableCellRenderer {
+
+    // ========== CONSTANTS ==========
+    private static final Color ROW_EVEN = Color.WHITE;
+    private static final Color ROW_ODD = new Color(245, 245, 245);
+    private static final Color HIGHLIGHT = new Color(255, 230, 120);
+
+    // ========== ATTRIBUTES ==========
+    private final MatchHighlighter highlighter;
+    private MatchHighlighter.Match currentMatch;
+    private Color currentBackground;
+
+    /**
+     * Constructor
+     * @param highlighter Engine highlight yang menyimpan posisi kecocokan
+     */
+    public HighlightCellRenderer(MatchHighlighter highlighter) {
+        this.highlighter = highlighter;
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value,
+            boolean isSelected, boolean hasFocus, int row, int column) {
+
+        Component c = super.getTableCellRendererComponent(table, value,
+                isSelected, hasFocus, row, column);
+
+        if (isSelected) {
+            currentMatch = null;
+            currentBackground = table.getSelectionBackground();
+        } else {
+            // Alternate row colors + highlight substring yang cocok
+            currentMatch = value instanceof String ? highlighter.getMatch((String) value) : null;
+            currentBackground = row % 2 == 0 ? ROW_EVEN : ROW_ODD;
+            c.setBackground(currentBackground);
+        }
+
+        // Background digambar sendiri agar highlight berada di bawah teks
+        setOpaque(false);
+        return c;
+    }
+
+    /**
+     * Gambar background, kotak highlight, lalu teks
+     * @param g Graphics object
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(currentBackground);
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        if (currentMatch != null) {
+            Insets insets = getInsets();
+            g.setColor(HIGHLIGHT);
+            currentMatch.paint(g, getFontMetrics(getFont()), insets.left, insets.top,
+                    getHeight() - insets.top - insets.bottom);
+        }
+
+        super.paintComponent(g);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package view.components;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.swing.JTable;
+
+/**
+ *
+ * Engine highlight hasil pencarian
+ * Posisi kecocokan keyword dihitung sekali per teks sel dan di-cache (LRU, paling banyak
+ * agenda.highlight.cacheSize teks), sehingga renderer tabel tidak mengulang operasi
+ * string saat painting
+ * @author slozoy
+ */
+public class MatchHighlighter {
+
+    // ========== CONSTANTS ==========
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+
+    // ========== ATTRIBUTES ==========
+    private String needle = "";
+    private final int cacheSize = Math.max(1, Integer.getInteger("agenda.highlight.cacheSize", DEFAULT_CACHE_SIZE));
+    private final Map<String, Match> matches = new LinkedHashMap<String, Match>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Match> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    // ========== KEYWORD ==========
+
+    /**
+     * Set keyword pencarian; cache dikosongkan jika keyword berubah
+     * @param keyword Kata kunci (kosong = tanpa highlight)
+     */
+    public void setKeyword(String keyword) {
+        String newNeedle = keyword == null ? "" : keyword.toLowerCase(Locale.ROOT);
+        if (!newNeedle.equals(needle)) {
+            needle = newNeedle;
+            matches.clear();
+        }
+    }
+
+    /**
+     * Cek apakah ada keyword aktif
+     * @return true jika ada keyword
+     */
+    public boolean isActive() {
+        return !needle.isEmpty();
+    }
+
+    /**
+     * Hitung posisi kecocokan untuk sel teks di baris yang terlihat
+     * Dipanggil setelah hasil pencarian dimuat; baris lain dihitung saat di-scroll
+     * @param table Tabel hasil pencarian
+     */
+    public void prepare(JTable table) {
+        if (!isActive() || table.getRowCount() == 0) {
+            return;
+        }
+        Rectangle visible = table.getVisibleRect();
+        if (visible.isEmpty()) {
+            return; // Belum tampil: dihitung renderer saat painting pertama
+        }
+        int first = table.rowAtPoint(visible.getLocation());
+        int last = table.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        first = Math.max(first, 0);
+        last = last < 0 ? table.getRowCount() - 1 : last; // Tabel lebih pendek dari viewport
+        for (int row = first; row <= last; row++) {
+            for (int column = 0; column < table.getColumnCount(); column++) {
+                Object value = table.getValueAt(row, column);
+                if (value instanceof String) {
+                    getMatch((String) value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ambil hasil kecocokan untuk teks sel (dihitung jika belum ada di cache,
+     * misalnya baris baru dari update incremental)
+     * @param text Teks sel
+     * @return Match, atau null jika tidak ada kecocokan
+     */
+    public Match getMatch(String text) {
+        if (!isActive() || text == null) {
+            return null;
+        }
+        Match match = matches.get(text);
+        if (match == null) {
+            match = computeMatch(text);
+            matches.put(text, match);
+        }
+        return match == Match.NONE ? null : match;
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private Match computeMatch(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        // Panjang lowercase bisa berbeda untuk karakter khusus; lewati agar posisi tetap valid
+        if (lower.length() != text.length()) {
+            return Match.NONE;
+        }
+
+        int count = 0;
+        int[] starts = new int[4];
+        int from = 0;
+        int index;
+        while ((index = lower.indexOf(needle, from)) >= 0) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = index;
+            from = index + needle.length();
+        }
+        if (count == 0) {
+            return Match.NONE;
+        }
+        return new Match(text, Arrays.copyOf(starts, count), needle.length());
+    }
+
+    // ========== HELPER CLASS ==========
+
+    /**
+     * Posisi kecocokan dalam satu teks, beserta posisi piksel yang di-cache
+     * per FontMetrics (dihitung sekali pada paint pertama)
+     */
+    public static class Match {
+        private static final Match NONE = new Match("", new int[0], 0);
+
+        private final String text;
+        private final int[] starts;
+        private final int length;
+        private FontMetrics metrics;
+        private int[] pixelX;
+        private int[] pixelWidth;
+
+        Match(String text, int[] starts, int length) {
+            this.text = text;
+            this.starts = starts;
+            this.length = length;
+        }
+
+        /**
+         * Gambar kotak highlight di belakang substring yang cocok
+         * @param g Graphics object
+         * @param fm FontMetrics dari font sel
+         * @param x Posisi x awal teks
+         * @param y Posisi y atas kotak
+         * @param height Tinggi kotak
+         */
+        public void paint(Graphics g, FontMetrics fm, int x, int y, int height) {
+            if (metrics == null || !metrics.getFont().equals(fm.getFont())) {
+                measure(fm);
+            }
+            for (int i = 0; i < pixelX.length; i++) {
+                g.fillRect(x + pixelX[i], y, pixelWidth[i], height);
+            }
+        }
+
+        private void measure(FontMetrics fm) {
+            pixelX = new int[starts.length];
+            pixelWidth = new int[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                pixelX[i] = fm.stringWidth(text.substring(0, starts[i]));
+                pixelWidth[i] = fm.stringWidth(text.substring(starts[i], starts[i] + length));
+            }
+            metrics = fm;
+        }
+    }
+}
@@ -5,6 +5,8 @@
 package view.components;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import javax.swing.*;
 /**
  *
@@ -15,12 +17,24 @@ import javax.swing.*;
 
 public class RoundedPanel extends JPanel {
     
+    // ========== CONSTANTS ==========
+    private static final Color BORDER_COLOR = new Color(230, 230, 230);
+    
     // ========== ATTRIBUTES ==========
     private Color backgroundColor;
     private int cornerRadius = 30;
     private boolean shadowEnabled = true;
     private Color shadowColor = new Color(0, 0, 0, 50);
     
+    // ========== RENDER CACHE ==========
+    // Shadow, background dan border dirasterisasi sekali ke image,
+    // repaint berikutnya cukup blit selama ukuran/warna/radius tidak berubah
+    private boolean cachedRendering = true;
+    private BufferedImage renderCache;
+    private int cacheWidth;
+    private int cacheHeight;
+    private double cacheScale;
+    
     // ========== CONSTRUCTORS ==========
     
     /**
@@ -70,6 +84,7 @@ public class RoundedPanel extends JPanel {
      */
     public void setCornerRadius(int radius) {
         this.cornerRadius = radius;
+        invalidateRenderCache();
         repaint();
     }
     
@@ -88,6 +103,7 @@ public class RoundedPanel extends JPanel {
     @Override
     public void setBackground(Color color) {
         this.backgroundColor = color;
+        invalidateRenderCache();
         repaint();
     }
     
@@ -106,6 +122,7 @@ public class RoundedPanel extends JPanel {
      */
     public void setShadowEnabled(boolean enabled) {
         this.shadowEnabled = enabled;
+        invalidateRenderCache();
         repaint();
     }
     
@@ -115,29 +132,88 @@ public class RoundedPanel extends JPanel {
      */
     public void setShadowColor(Color color) {
         this.shadowColor = color;
+        invalidateRenderCache();
+        repaint();
+    }
+    
+    /**
+     * Enable/disable cached rendering (default: enabled)
+     * @param enabled true untuk memakai image cache
+     */
+    public void setCachedRendering(boolean enabled) {
+        this.cachedRendering = enabled;
+        invalidateRenderCache();
         repaint();
     }
     
+    /**
+     * Cek apakah cached rendering aktif
+     * @return true jika aktif
+     */
+    public boolean isCachedRendering() {
+        return cachedRendering;
+    }
+    
     // ========== PAINT METHODS ==========
     
     /**
      * Override paintComponent untuk menggambar rounded panel
+     * Dengan cached rendering, shadow/background/border cukup di-blit dari image
      * @param g Graphics object
      */
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         
+        int width = getWidth();
+        int height = getHeight();
+        
+        if (cachedRendering) {
+            double scale = ((Graphics2D) g).getTransform().getScaleX();
+            if (renderCache == null || cacheWidth != width || cacheHeight != height
+                    || cacheScale != scale) {
+                renderCache = rasterize(width, height, scale);
+                cacheWidth = width;
+                cacheHeight = height;
+                cacheScale = scale;
+            }
+            g.drawImage(renderCache, 0, 0, width, height, null);
+            return;
+        }
+        
         // Enable anti-aliasing untuk smooth edges
         Graphics2D g2 = (Graphics2D) g.create();
+        paintBackground(g2, width, height);
+        g2.dispose();
+    }
+    
+    /**
+     * Override paintBorder untuk menggambar border rounded
+     * Tidak digambar ulang jika cached rendering aktif (sudah ada di image cache)
+     * @param g Graphics object
+     */
+    @Override
+    protected void paintBorder(Graphics g) {
+        if (cachedRendering) {
+            return;
+        }
+        
+        Graphics2D g2 = (Graphics2D) g.create();
+        paintRoundedBorder(g2, getWidth(), getHeight());
+        g2.dispose();
+    }
+    
+    // ========== HELPER METHODS ==========
+    
+    /**
+     * Gambar shadow dan background dengan rounded corners
+     */
+    private void paintBackground(Graphics2D g2, int width, int height) {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
                            RenderingHints.VALUE_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_RENDERING, 
                            RenderingHints.VALUE_RENDER_QUALITY);
         
-        int width = getWidth();
-        int height = getHeight();
-        
         // Draw shadow jika enabled
         if (shadowEnabled) {
             g2.setColor(shadowColor);
@@ -147,27 +223,45 @@ public class RoundedPanel extends JPanel {
         // Draw background dengan rounded corners
         g2.setColor(backgroundColor);
         g2.fillRoundRect(0, 0, width - 3, height - 3, cornerRadius, cornerRadius);
-        
-        g2.dispose();
     }
     
     /**
-     * Override paintBorder untuk menggambar border rounded
-     * @param g Graphics object
+     * Gambar border rounded
      */
-    @Override
-    protected void paintBorder(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
+    private void paintRoundedBorder(Graphics2D g2, int width, int height) {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
                            RenderingHints.VALUE_ANTIALIAS_ON);
         
-        int width = getWidth();
-        int height = getHeight();
-        
         // Draw border (optional - bisa dikustomisasi)
-        g2.setColor(new Color(230, 230, 230));
+        g2.setColor(BORDER_COLOR);
         g2.drawRoundRect(0, 0, width - 4, height - 4, cornerRadius, cornerRadius);
+    }
+    
+    /**
+     * Rasterisasi shadow, background dan border ke image translucent
+     * dengan resolusi sesuai skala layar (HiDPI)
+     */
+    private BufferedImage rasterize(int width, int height, double scale) {
+        int imageWidth = Math.max(1, (int) Math.ceil(width * scale));
+        int imageHeight = Math.max(1, (int) Math.ceil(height * scale));
         
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        
+        Graphics2D g2 = image.createGraphics();
+        g2.transform(AffineTransform.getScaleInstance(scale, scale));
+        paintBackground(g2, width, height);
+        paintRoundedBorder(g2, width, height);
         g2.dispose();
+        return image;
+    }
+    
+    /**
+     * Buang image cache agar digambar ulang pada paint berikutnya
+     */
+    private void invalidateRenderCache() {
+        renderCache = null;
     }
 }
\ No newline at end of file